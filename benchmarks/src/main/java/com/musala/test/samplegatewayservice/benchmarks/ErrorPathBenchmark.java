@@ -0,0 +1,110 @@
+package com.musala.test.samplegatewayservice.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.config.exception.FixedErrorPayloads;
+import com.musala.test.samplegatewayservice.controllers.OperationNotAllowedException;
+import com.musala.test.samplegatewayservice.services.EntityNotFoundException;
+import com.musala.test.samplegatewayservice.services.GatewayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One rejected request of a retry storm, from the exception thrown deep in the request stack to the bytes of the error body.
+ * The *WithStackTrace variants are the error path before stackless exceptions and precomputed payloads.
+ * Run with -t to have several threads reject at once, and -prof gc to compare allocation.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    /**
+     * Frames between the service and the servlet container, a Spring MVC request with transactions is around 150 deep
+     * */
+    @Param({"20", "150"})
+    private int stackDepth;
+
+    private final String gatewayId = UUID.randomUUID().toString();
+
+    private ObjectMapper objectMapper;
+
+    private FixedErrorPayloads fixedErrorPayloads;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        fixedErrorPayloads = new FixedErrorPayloads(objectMapper, List.of(GatewayService.PERIPHERAL_CAP_MESSAGE));
+    }
+
+    @Benchmark
+    public byte[] capRejectionWithStackTrace() throws JsonProcessingException {
+        try {
+            throwAt(stackDepth, () -> new OperationNotAllowedException(GatewayService.PERIPHERAL_CAP_MESSAGE, null, true, true));
+            throw new IllegalStateException();
+        } catch (OperationNotAllowedException e) {
+            return objectMapper.writeValueAsBytes(FixedErrorPayloads.badRequest(e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public byte[] capRejection() {
+        try {
+            throwAt(stackDepth, () -> new OperationNotAllowedException(GatewayService.PERIPHERAL_CAP_MESSAGE));
+            throw new IllegalStateException();
+        } catch (OperationNotAllowedException e) {
+            return fixedErrorPayloads.get(e.getMessage());
+        }
+    }
+
+    @Benchmark
+    public byte[] notFoundWithStackTrace() throws JsonProcessingException {
+        try {
+            throwAt(stackDepth, () -> new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId, null, true, true));
+            throw new IllegalStateException();
+        } catch (EntityNotFoundException e) {
+            return objectMapper.writeValueAsBytes(FixedErrorPayloads.badRequest(e.getMessage()));
+        }
+    }
+
+    /**
+     * The message carries the ID, only the stack trace is saved
+     * */
+    @Benchmark
+    public byte[] notFound() throws JsonProcessingException {
+        try {
+            throwAt(stackDepth, () -> new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId));
+            throw new IllegalStateException();
+        } catch (EntityNotFoundException e) {
+            return objectMapper.writeValueAsBytes(FixedErrorPayloads.badRequest(e.getMessage()));
+        }
+    }
+
+    private static int throwAt(int depth, Supplier<RuntimeException> exception) {
+
+        if (depth == 0) {
+            throw exception.get();
+        }
+
+        return throwAt(depth - 1, exception) + 1;
+    }
+
+}
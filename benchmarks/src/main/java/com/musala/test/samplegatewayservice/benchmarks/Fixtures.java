@@ -0,0 +1,73 @@
+package com.musala.test.samplegatewayservice.benchmarks;
+
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
+import com.musala.test.samplegatewayservice.models.ids.TimeOrderedUuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateways shaped like a full listing page, every gateway at the peripheral cap
+ * */
+final class Fixtures {
+
+    static final int PERIPHERALS_PER_GATEWAY = 10;
+
+    private Fixtures() {
+    }
+
+    static List<Gateway> gateways(int count) {
+
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 0);
+        List<Gateway> gateways = new ArrayList<>(count);
+        long peripheralId = 1;
+
+        for (int i = 0; i < count; i++) {
+
+            String id = TimeOrderedUuidGenerator.nextUuid().toString();
+            List<Peripheral> peripherals = new ArrayList<>(PERIPHERALS_PER_GATEWAY);
+
+            for (int j = 0; j < PERIPHERALS_PER_GATEWAY; j++) {
+
+                Peripheral peripheral = new Peripheral();
+                peripheral.setId(peripheralId++);
+                peripheral.setName("Peripheral " + j);
+                peripheral.setVendor("Vendor " + j);
+                peripheral.setStatus(j % 2 == 0 ? PeripheralStatus.ONLINE : PeripheralStatus.OFFLINE);
+                peripheral.setGatewayId(id);
+                peripheral.setCreatedAt(now);
+                peripheral.setUpdatedAt(now);
+
+                peripherals.add(peripheral);
+            }
+
+            Gateway gateway = new Gateway(id, "Gateway " + i, "10.0." + (i / 256) % 256 + "." + i % 256, peripherals);
+            gateway.setCreatedAt(now);
+            gateway.setUpdatedAt(now);
+
+            gateways.add(gateway);
+        }
+
+        return gateways;
+    }
+
+    /**
+     * Peripherals of the gateways in the order a peripheral query returns them, interleaved across gateways
+     * */
+    static List<Peripheral> interleavedPeripherals(List<Gateway> gateways) {
+
+        List<Peripheral> peripherals = new ArrayList<>(gateways.size() * PERIPHERALS_PER_GATEWAY);
+
+        for (int j = 0; j < PERIPHERALS_PER_GATEWAY; j++) {
+            for (Gateway gateway : gateways) {
+                peripherals.add(gateway.getPeripherals().get(j));
+            }
+        }
+
+        return peripherals;
+    }
+
+}
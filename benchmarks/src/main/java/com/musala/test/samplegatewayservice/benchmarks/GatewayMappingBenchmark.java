@@ -0,0 +1,59 @@
+package com.musala.test.samplegatewayservice.benchmarks;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapper;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapperImpl;
+import com.musala.test.samplegatewayservice.mappers.PeripheralMapperImpl;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response conversion of one gateway with {@value Fixtures#PERIPHERALS_PER_GATEWAY} peripherals,
+ * ModelMapper with the strict matching the service used to configure against the generated mappers used on the request path
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GatewayMappingBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private GatewayMapper gatewayMapper;
+
+    private Gateway gateway;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        gatewayMapper = new GatewayMapperImpl(new PeripheralMapperImpl());
+        gateway = Fixtures.gateways(1).get(0);
+    }
+
+    @Benchmark
+    public GatewayResponseDTO modelMapper() {
+        return modelMapper.map(gateway, GatewayResponseDTO.class);
+    }
+
+    @Benchmark
+    public GatewayResponseDTO generatedMapper() {
+        return gatewayMapper.toDto(gateway);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.musala.test.samplegatewayservice.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapper;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapperImpl;
+import com.musala.test.samplegatewayservice.mappers.PeripheralMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Response body of GET /gateway, a page of gateways with {@value Fixtures#PERIPHERALS_PER_GATEWAY} peripherals each,
+ * written by an ObjectMapper with Spring's defaults
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GatewayPageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private Page<GatewayResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        GatewayMapper gatewayMapper = new GatewayMapperImpl(new PeripheralMapperImpl());
+
+        List<GatewayResponseDTO> gateways = Fixtures.gateways(pageSize).stream()
+                .map(gatewayMapper::toDto)
+                .collect(Collectors.toList());
+
+        page = new PageImpl<>(gateways, PageRequest.of(3, pageSize, Sort.by("createdAt", "id")), 100_000);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+}
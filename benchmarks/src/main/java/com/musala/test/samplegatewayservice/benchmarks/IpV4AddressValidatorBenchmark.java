@@ -0,0 +1,53 @@
+package com.musala.test.samplegatewayservice.benchmarks;
+
+import com.musala.test.samplegatewayservice.models.types.IpV4Addresses;
+import com.musala.test.samplegatewayservice.validation.validators.IpV4AddressValidator;
+import org.apache.commons.validator.routines.InetAddressValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of the address of every created or imported gateway, against the commons-validator implementation it replaced.
+ * Run with -prof gc to compare the allocation rate, the parser allocates nothing per call.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class IpV4AddressValidatorBenchmark {
+
+    @Param({"192.168.0.1", "255.255.255.255", "10.0.0", "256.1.1.1", "not an address"})
+    private String address;
+
+    private final IpV4AddressValidator validator = new IpV4AddressValidator();
+
+    private final InetAddressValidator commonsValidator = InetAddressValidator.getInstance();
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(address, null);
+    }
+
+    @Benchmark
+    public boolean commonsIsValidInet4Address() {
+        return commonsValidator.isValidInet4Address(address);
+    }
+
+    @Benchmark
+    public int parse() {
+        return IpV4Addresses.isValid(address) ? IpV4Addresses.parse(address) : -1;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.musala.test.samplegatewayservice.benchmarks;
+
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Grouping of a page's peripherals by gateway as done by GatewayService.getGateways, the collector against a presized map
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PeripheralGroupingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<Peripheral> peripherals;
+
+    @Setup
+    public void setUp() {
+        peripherals = Fixtures.interleavedPeripherals(Fixtures.gateways(pageSize));
+    }
+
+    @Benchmark
+    public Map<String, List<Peripheral>> groupingByCollector() {
+        return peripherals.stream()
+                .collect(Collectors.groupingBy(Peripheral::getGatewayId));
+    }
+
+    @Benchmark
+    public Map<String, List<Peripheral>> presizedMap() {
+
+        Map<String, List<Peripheral>> gatewayIdToPeripherals = new HashMap<>(pageSize * 4 / 3 + 1);
+
+        for (Peripheral peripheral : peripherals) {
+            gatewayIdToPeripherals
+                    .computeIfAbsent(peripheral.getGatewayId(), id -> new ArrayList<>(Fixtures.PERIPHERALS_PER_GATEWAY))
+                    .add(peripheral);
+        }
+
+        return gatewayIdToPeripherals;
+    }
+
+}
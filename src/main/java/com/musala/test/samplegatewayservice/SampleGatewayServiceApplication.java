@@ -2,8 +2,13 @@ package com.musala.test.samplegatewayservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * R2DBC is configured by {@link com.musala.test.samplegatewayservice.config.reactive.ReactiveDatabaseConfig} for the reactive
+ * read path only, the auto-configured connection factory would switch off the JDBC datasource
+ * */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class SampleGatewayServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,34 @@
+package com.musala.test.samplegatewayservice.config.apidocs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import springfox.documentation.service.ApiDescription;
+import springfox.documentation.service.Operation;
+import springfox.documentation.spi.DocumentationType;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.Comparator;
+
+@Configuration
+public class ApiDocumentationConfig {
+
+    /**
+     * Mappings of one path and method told apart by their request parameters, like the gateway listings, are documented as a single
+     * operation. Springfox keeps the last one, in the order of its descriptions, which it only sorts by path. Ordering also by the
+     * operations keeps the same one on every start, static/openapi.json has to match it
+     * */
+    @Bean
+    public Docket apiDocumentation() {
+
+        Comparator<ApiDescription> byOperations = Comparator.comparing(description -> description.getOperations().stream()
+                .map(Operation::getUniqueId)
+                .sorted()
+                .findFirst()
+                .orElse(""));
+
+        return new Docket(DocumentationType.OAS_30)
+                .apiDescriptionOrdering(Comparator.comparing(ApiDescription::getPath).thenComparing(byOperations))
+                .operationOrdering(Comparator.comparing(Operation::getUniqueId));
+    }
+
+}
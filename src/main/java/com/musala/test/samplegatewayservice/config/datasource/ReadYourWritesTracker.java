@@ -0,0 +1,50 @@
+package com.musala.test.samplegatewayservice.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musala.test.samplegatewayservice.services.RequestClients;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients wrote recently, so their reads stay on the primary until replicas have had time to catch up.
+ * Clients are told apart by {@link RequestClients}, work outside of a request has no client and is never sticky.
+ * */
+class ReadYourWritesTracker {
+
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    private final String clientHeader;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    ReadYourWritesTracker(String clientHeader, Duration stickyWindow) {
+        this.clientHeader = clientHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_CLIENTS)
+                .expireAfterWrite(stickyWindow)
+                .build();
+    }
+
+    void recordWrite() {
+
+        String client = currentClient();
+
+        if (client != null) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+
+    }
+
+    boolean wroteRecently() {
+
+        String client = currentClient();
+
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private String currentClient() {
+        return RequestClients.current(clientHeader);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.musala.test.samplegatewayservice.config.datasource;
+
+import com.musala.test.samplegatewayservice.config.datasource.ReplicaRoutingDataSource.Replica;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Writes a heartbeat on the primary and reads it back from every replica, a replica whose newest heartbeat is older than
+ * the allowed lag, or that can't be reached, is skipped by reads until a later check finds it caught up.
+ * The heartbeat interval adds up to one interval to the measured lag, so max-lag has to be larger than the interval.
+ * */
+@Log4j2
+public class ReplicaLagMonitor {
+
+    private static final String BEAT = "UPDATE replication_heartbeat SET beat_at = UTC_TIMESTAMP(6) WHERE id = 1";
+
+    private static final String LAG = "SELECT TIMESTAMPDIFF(MICROSECOND, beat_at, UTC_TIMESTAMP(6)) FROM replication_heartbeat WHERE id = 1";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    private final long maxLagMillis;
+
+    ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.datasource.replica.heartbeat-interval:PT1S}")
+    public void check() {
+
+        try {
+            new JdbcTemplate(routingDataSource.getPrimary()).update(BEAT);
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat on the primary", e);
+        }
+
+        for (Replica replica : routingDataSource.getReplicas()) {
+            checkReplica(replica);
+        }
+
+    }
+
+    private void checkReplica(Replica replica) {
+
+        long lagMillis;
+
+        try {
+            Long lagMicros = new JdbcTemplate(replica.getDataSource()).queryForObject(LAG, Long.class);
+            lagMillis = lagMicros == null ? -1 : Math.max(0, lagMicros / 1000);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the replication heartbeat on {}", replica.getName(), e);
+            lagMillis = -1;
+        }
+
+        boolean inSync = lagMillis >= 0 && lagMillis <= maxLagMillis;
+
+        if (!inSync) {
+            log.warn("Replica {} lags {} ms, reads go to the other replicas or the primary", replica.getName(), lagMillis);
+        }
+
+        replica.update(lagMillis, inSync);
+
+    }
+
+}
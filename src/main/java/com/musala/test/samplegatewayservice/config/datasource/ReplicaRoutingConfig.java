@@ -0,0 +1,103 @@
+package com.musala.test.samplegatewayservice.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enabled by listing replica JDBC URLs in gateway.datasource.replica.urls. The primary and every replica get their own Hikari pool,
+ * all configured from spring.datasource.hikari.*, and the context's DataSource routes between them per transaction.
+ * Without replicas the auto-configured single datasource is used as before.
+ * */
+@Configuration
+@ConditionalOnExpression(ReplicaRoutingConfig.REPLICAS_CONFIGURED)
+public class ReplicaRoutingConfig {
+
+    public static final String REPLICAS_CONFIGURED = "!'${gateway.datasource.replica.urls:}'.trim().isEmpty()";
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties dataSourceProperties, Environment environment,
+            @Value("${gateway.datasource.replica.urls}") List<String> replicaUrls,
+            @Value("${gateway.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${gateway.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${gateway.datasource.replica.client-header:X-Client-Id}") String clientHeader,
+            @Value("${gateway.datasource.replica.sticky-window:PT5S}") Duration stickyWindow,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+
+        HikariDataSource primary = newPool(dataSourceProperties, environment, "gateway-primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+
+        for (int i = 0; i < replicaUrls.size(); i++) {
+
+            HikariDataSource replica = newPool(dataSourceProperties, environment, "gateway-replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+
+            replicas.add(replica);
+        }
+
+        // the pools are not beans, so the actuator's pool metrics don't find them behind the routing datasource
+        meterRegistry.ifAvailable(registry -> {
+            MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(registry);
+            primary.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.forEach(replica -> replica.setMetricsTrackerFactory(metricsTrackerFactory));
+        });
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replicas,
+                new ReadYourWritesTracker(clientHeader, stickyWindow));
+        routingDataSource.afterPropertiesSet();
+
+        return routingDataSource;
+    }
+
+    /**
+     * The DataSource JPA, JdbcTemplate and Flyway use. The lazy proxy defers picking a pool to the first statement of a transaction.
+     * */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               @Value("${gateway.datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, maxLag);
+    }
+
+    private static HikariDataSource newPool(DataSourceProperties dataSourceProperties, Environment environment, String poolName) {
+
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        Binder.get(environment).bind(HIKARI_PROPERTIES, Bindable.ofInstance(dataSource));
+
+        dataSource.setPoolName(poolName);
+
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.musala.test.samplegatewayservice.config.datasource;
+
+import com.musala.test.samplegatewayservice.dtos.datasource.DataSourceStatsDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections of read only transactions to a replica, everything else to the primary.
+ * Reads fall back to the primary while the client wrote within the sticky window, or when no replica is within the allowed lag.
+ * The key is determined when a connection is actually needed, so this must sit behind a LazyConnectionDataSourceProxy:
+ * transaction managers open the connection before the read only flag of the transaction is visible.
+ * */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final LongAdder primaryConnections = new LongAdder();
+
+    private final LongAdder stickyReads = new LongAdder();
+
+    private final LongAdder lagFallbacks = new LongAdder();
+
+    ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                             ReadYourWritesTracker readYourWritesTracker) {
+
+        this.primary = primary;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.replicas = new ArrayList<>();
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+
+        for (HikariDataSource replicaDataSource : replicaDataSources) {
+            Replica replica = new Replica(replicaDataSource);
+            replicas.add(replica);
+            targetDataSources.put(replica.getName(), replicaDataSource);
+        }
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite();
+            }
+
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+
+        if (readYourWritesTracker.wroteRecently()) {
+            stickyReads.increment();
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+
+        Replica replica = nextHealthyReplica();
+
+        if (replica == null) {
+            lagFallbacks.increment();
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+
+        replica.routedConnections.increment();
+        return replica.getName();
+    }
+
+    /**
+     * Round robin over the replicas, skipping the ones currently marked as lagging
+     * */
+    private Replica nextHealthyReplica() {
+
+        int replicaCount = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+
+        for (int i = 0; i < replicaCount; i++) {
+
+            Replica replica = replicas.get((start + i) % replicaCount);
+
+            if (replica.inSync) {
+                return replica;
+            }
+        }
+
+        return null;
+    }
+
+    HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getStickyReads() {
+        return stickyReads.sum();
+    }
+
+    public long getLagFallbacks() {
+        return lagFallbacks.sum();
+    }
+
+    /**
+     * Pool state and routing counters of the primary and every replica, primary first
+     * */
+    public List<DataSourceStatsDTO> getStats() {
+
+        List<DataSourceStatsDTO> stats = new ArrayList<>();
+
+        stats.add(toStats(primary, "PRIMARY", primaryConnections.sum(), true, 0));
+
+        for (Replica replica : replicas) {
+            stats.add(toStats(replica.dataSource, "REPLICA", replica.routedConnections.sum(), replica.inSync, replica.lagMillis));
+        }
+
+        return stats;
+    }
+
+    private static DataSourceStatsDTO toStats(HikariDataSource dataSource, String role, long routedConnections,
+                                              boolean inSync, long lagMillis) {
+
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+        // the pool is created with the first connection
+        if (pool == null) {
+            return new DataSourceStatsDTO(dataSource.getPoolName(), role, 0, 0, 0, 0, routedConnections, inSync, lagMillis);
+        }
+
+        return new DataSourceStatsDTO(dataSource.getPoolName(), role, pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection(), routedConnections, inSync, lagMillis);
+    }
+
+    @Override
+    public void close() {
+
+        primary.close();
+
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+
+    }
+
+    static class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private final LongAdder routedConnections = new LongAdder();
+
+        private volatile boolean inSync;
+
+        private volatile long lagMillis = -1;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String getName() {
+            return dataSource.getPoolName();
+        }
+
+        HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        /**
+         * @param lagMillis age of the newest heartbeat seen on the replica, -1 when it could not be read
+         * */
+        void update(long lagMillis, boolean inSync) {
+            this.lagMillis = lagMillis;
+            this.inSync = inSync;
+        }
+
+    }
+
+}
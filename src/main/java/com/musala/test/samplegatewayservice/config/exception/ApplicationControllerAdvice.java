@@ -1,13 +1,18 @@
 package com.musala.test.samplegatewayservice.config.exception;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
 import com.musala.test.samplegatewayservice.controllers.OperationNotAllowedException;
 import com.musala.test.samplegatewayservice.dtos.error.ErrorResponseDTO;
 import com.musala.test.samplegatewayservice.dtos.error.ErrorDetails;
 import com.musala.test.samplegatewayservice.services.EntityNotFoundException;
+import com.musala.test.samplegatewayservice.services.GatewayService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -21,6 +26,12 @@ import java.util.List;
 @ControllerAdvice
 public class ApplicationControllerAdvice {
 
+    private final FixedErrorPayloads fixedErrorPayloads;
+
+    public ApplicationControllerAdvice(ObjectMapper objectMapper) {
+        this.fixedErrorPayloads = new FixedErrorPayloads(objectMapper, List.of(GatewayService.PERIPHERAL_CAP_MESSAGE));
+    }
+
     @ResponseBody
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(ConstraintViolationException.class)
@@ -64,6 +75,14 @@ public class ApplicationControllerAdvice {
     @ExceptionHandler(OperationNotAllowedException.class)
     ResponseEntity<Object> onOperationNotAllowedException(OperationNotAllowedException e) {
 
+        byte[] fixedPayload = fixedErrorPayloads.get(e.getMessage());
+
+        if (fixedPayload != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(fixedPayload);
+        }
+
         ErrorResponseDTO error = new ErrorResponseDTO();
         error.setMessage("Bad Request");
 
@@ -76,6 +95,43 @@ public class ApplicationControllerAdvice {
 
     }
 
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    ResponseEntity<Object> onInvalidRequestParameterException(InvalidRequestParameterException e) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO();
+        error.setMessage("Bad Request");
+
+        List<ErrorDetails> errors = new ArrayList<>();
+        error.setErrors(errors);
+
+        errors.add(new ErrorDetails(null, e.getMessage()));
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+
+    }
+
+    /**
+     * Request parameters that match none of the parameter conditions of a path, like two listing modes requested at once
+     * */
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(UnsatisfiedServletRequestParameterException.class)
+    ResponseEntity<Object> onUnsatisfiedServletRequestParameterException(UnsatisfiedServletRequestParameterException e) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO();
+        error.setMessage("Bad Request");
+
+        List<ErrorDetails> errors = new ArrayList<>();
+        error.setErrors(errors);
+
+        errors.add(new ErrorDetails(null, "Unsupported combination of request parameters " + e.getActualParams().keySet()));
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+
+    }
+
     @ResponseBody
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(EntityNotFoundException.class)
@@ -0,0 +1,50 @@
+package com.musala.test.samplegatewayservice.config.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorDetails;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorResponseDTO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bad request bodies of error messages that never change, serialized once up front.
+ * Answering a rejection with one of them neither builds an {@link ErrorResponseDTO} nor runs Jackson.
+ * */
+public final class FixedErrorPayloads {
+
+    private final Map<String, byte[]> payloads = new HashMap<>();
+
+    public FixedErrorPayloads(ObjectMapper objectMapper, Collection<String> messages) {
+
+        for (String message : messages) {
+            try {
+                payloads.put(message, objectMapper.writeValueAsBytes(badRequest(message)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize the error payload of: " + message, e);
+            }
+        }
+    }
+
+    /**
+     * @return the serialized body, null when the message is not a fixed one. Callers must not modify it.
+     * */
+    public byte[] get(String message) {
+        return payloads.get(message);
+    }
+
+    /**
+     * Same body ApplicationControllerAdvice builds for a single message
+     * */
+    public static ErrorResponseDTO badRequest(String message) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO();
+        error.setMessage("Bad Request");
+        error.getErrors().add(new ErrorDetails(null, message));
+
+        return error;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.musala.test.samplegatewayservice.config.idgen;
+
+import com.musala.test.samplegatewayservice.models.ids.PeripheralIdGenerator;
+import com.musala.test.samplegatewayservice.models.ids.PeripheralIdStrategy;
+import com.musala.test.samplegatewayservice.models.ids.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands the gateway.peripheral.id.* properties over to {@link PeripheralIdGenerator}, which only sees Hibernate settings.
+ * The node-id has no default, two instances falling back to the same one would hand out the same snowflake IDs.
+ * */
+@Configuration
+public class PeripheralIdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer peripheralIdGenerationCustomizer(
+            @Value("${gateway.peripheral.id.strategy:sequence}") String strategy,
+            @Value("${gateway.peripheral.id.block-size:50}") int blockSize,
+            @Value("${gateway.peripheral.id.node-id:#{null}}") Integer nodeId) {
+
+        // fail on startup rather than on the first insert
+        PeripheralIdStrategy peripheralIdStrategy = PeripheralIdStrategy.of(strategy);
+
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("gateway.peripheral.id.block-size must be positive, was " + blockSize);
+        }
+
+        if (nodeId == null && peripheralIdStrategy == PeripheralIdStrategy.SNOWFLAKE) {
+            throw new IllegalArgumentException("gateway.peripheral.id.node-id is required by the snowflake strategy and must be unique per running instance");
+        }
+
+        if (nodeId != null && (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_NODE_ID)) {
+            throw new IllegalArgumentException("gateway.peripheral.id.node-id must be between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID + ", was " + nodeId);
+        }
+
+        return hibernateProperties -> {
+            hibernateProperties.put(PeripheralIdGenerator.STRATEGY_SETTING, strategy);
+            hibernateProperties.put(PeripheralIdGenerator.BLOCK_SIZE_SETTING, String.valueOf(blockSize));
+            if (nodeId != null) {
+                hibernateProperties.put(PeripheralIdGenerator.NODE_ID_SETTING, String.valueOf(nodeId));
+            }
+        };
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.musala.test.samplegatewayservice.config.reactive;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Reactive connections to the same database as the JDBC datasource, derived from spring.datasource.* so both always point at
+ * the same schema. The pool is kept out of the context on purpose, a ConnectionFactory bean disables the datasource auto-configuration.
+ * Only MySQL URLs can be derived, gateway.reactive.enabled=false leaves the reactive read path out for any other database.
+ * The pool is measured as r2dbc.pool.* next to the hikaricp.* meters of the JDBC pool.
+ * <p>
+ * No max acquire time is set: with r2dbc-pool 0.8.7 an acquire that times out while its connection is still being created is
+ * retried, and the connection can then be handed to that reader and to another one at once. Waiting reads are bounded by the
+ * async request timeout of Spring MVC instead.
+ * */
+@Configuration
+@ConditionalOnProperty(name = "gateway.reactive.enabled", havingValue = "true")
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    private static final String JDBC_PREFIX = "jdbc:";
+
+    private static final String POOL_NAME = "reactive-gateway-reads";
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveDatabaseConfig(DataSourceProperties dataSourceProperties,
+                                  @Value("${gateway.reactive.pool.initial-size:2}") int initialSize,
+                                  @Value("${gateway.reactive.pool.max-size:10}") int maxSize,
+                                  @Value("${gateway.reactive.pool.max-idle-time:PT30M}") Duration maxIdleTime) {
+
+        ConnectionFactory connectionFactory = ConnectionFactories.get(toR2dbcOptions(dataSourceProperties));
+
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name(POOL_NAME)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public MeterBinder reactiveConnectionPoolMetrics() {
+        return new ConnectionPoolMetrics(connectionPool, POOL_NAME, Tags.empty());
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    /**
+     * jdbc:mysql://host:port/database?params becomes r2dbc:mysql://host:port/database, JDBC driver parameters don't apply to R2DBC
+     * */
+    static ConnectionFactoryOptions toR2dbcOptions(DataSourceProperties dataSourceProperties) {
+
+        String jdbcUrl = dataSourceProperties.determineUrl();
+
+        if (!jdbcUrl.startsWith(JDBC_PREFIX + "mysql:")) {
+            throw new IllegalStateException("The reactive read path supports MySQL datasource URLs only, set gateway.reactive.enabled=false for " + jdbcUrl);
+        }
+
+        String r2dbcUrl = "r2dbc:" + jdbcUrl.substring(JDBC_PREFIX.length());
+
+        int queryStart = r2dbcUrl.indexOf('?');
+        if (queryStart >= 0) {
+            r2dbcUrl = r2dbcUrl.substring(0, queryStart);
+        }
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+
+        String password = dataSourceProperties.determinePassword();
+
+        if (password != null && !password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+
+        return options.build();
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.musala.test.samplegatewayservice.config.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * With spring.main.lazy-initialization the migrations and the Hibernate bootstrap still run at startup,
+     * otherwise the first request would pay for them and a broken schema would only show up then
+     * */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class, EntityManagerFactory.class);
+    }
+
+}
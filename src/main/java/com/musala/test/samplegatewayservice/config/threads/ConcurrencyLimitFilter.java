@@ -0,0 +1,82 @@
+package com.musala.test.samplegatewayservice.config.threads;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorDetails;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorResponseDTO;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the requests in progress when the thread pool no longer does. Requests over the cap wait up to the acquire timeout
+ * for a permit and are rejected with 503 after that, instead of piling up behind the connection pool until they time out there.
+ * */
+@Log4j2
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, ObjectMapper objectMapper) {
+
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive, was " + maxConcurrentRequests);
+        }
+
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean acquired;
+
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            log.warn("Rejected {} {}, concurrent request limit reached", request.getMethod(), request.getRequestURI());
+            reject(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+
+        ErrorResponseDTO error = new ErrorResponseDTO();
+        error.setMessage("Service Unavailable");
+        error.setErrors(List.of(new ErrorDetails(null, "Too many requests in progress, retry later.")));
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+
+    }
+
+}
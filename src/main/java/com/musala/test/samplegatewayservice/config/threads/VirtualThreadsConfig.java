@@ -0,0 +1,53 @@
+package com.musala.test.samplegatewayservice.config.threads;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * gateway.threads.mode=virtual runs every request, and so the controller and service work, on its own virtual thread
+ * instead of Tomcat's bounded worker pool. Concurrency is then bounded by {@link ConcurrencyLimitFilter} and the
+ * connection pool, both sized in the virtual-threads profile.
+ * <p>
+ * Blocking inside a synchronized block pins the virtual thread to its carrier, which is why the pom overrides the
+ * MySQL driver with a version that guards its I/O with locks instead.
+ * */
+@Configuration
+@ConditionalOnProperty(name = "gateway.threads.mode", havingValue = "virtual")
+public class VirtualThreadsConfig {
+
+    /**
+     * The executor is not exposed as a bean, an Executor bean would replace the auto-configured application task executor.
+     * Virtual threads are daemon threads, nothing needs to be shut down with the connector.
+     * */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer() {
+
+        ExecutorService virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${gateway.threads.virtual.max-concurrent-requests:400}") int maxConcurrentRequests,
+            @Value("${gateway.threads.virtual.acquire-timeout:PT1S}") Duration acquireTimeout,
+            ObjectMapper objectMapper) {
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeout, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+    }
+
+}
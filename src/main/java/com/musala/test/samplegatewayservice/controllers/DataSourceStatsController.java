@@ -0,0 +1,34 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+import com.musala.test.samplegatewayservice.config.datasource.ReplicaRoutingConfig;
+import com.musala.test.samplegatewayservice.config.datasource.ReplicaRoutingDataSource;
+import com.musala.test.samplegatewayservice.dtos.datasource.DataSourceStatsDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Pool and routing state of the primary and replica datasources, only present when replicas are configured
+ * */
+@RestController
+@RequestMapping("/gateway/datasource")
+@ConditionalOnExpression(ReplicaRoutingConfig.REPLICAS_CONFIGURED)
+public class DataSourceStatsController {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public DataSourceStatsController(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @GetMapping("/stats")
+    public List<DataSourceStatsDTO> getDataSourceStats() {
+
+        return replicaRoutingDataSource.getStats();
+
+    }
+
+}
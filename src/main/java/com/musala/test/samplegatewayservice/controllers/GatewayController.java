@@ -1,87 +1,317 @@
 package com.musala.test.samplegatewayservice.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.musala.test.samplegatewayservice.dtos.cache.CacheStatsDTO;
 import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayImportResultDTO;
 import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.page.CursorPageDTO;
 import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
 import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusResponseDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapper;
+import com.musala.test.samplegatewayservice.mappers.PeripheralMapper;
 import com.musala.test.samplegatewayservice.models.Gateway;
 import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.services.CountMode;
+import com.musala.test.samplegatewayservice.services.EntityTags;
+import com.musala.test.samplegatewayservice.services.GatewayCursor;
+import com.musala.test.samplegatewayservice.services.GatewayExportService;
+import com.musala.test.samplegatewayservice.services.GatewayImportService;
+import com.musala.test.samplegatewayservice.services.GatewayListingTag;
+import com.musala.test.samplegatewayservice.services.GatewayResponseCache;
 import com.musala.test.samplegatewayservice.services.GatewayService;
-import org.modelmapper.ModelMapper;
+import com.musala.test.samplegatewayservice.services.IdempotentRequests;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Validated
 @RestController
 @RequestMapping("/gateway")
 public class GatewayController {
 
-    private final ModelMapper modelMapper;
+    private final GatewayMapper gatewayMapper;
+    private final PeripheralMapper peripheralMapper;
     private final GatewayService gatewayService;
+    private final GatewayImportService gatewayImportService;
+    private final GatewayExportService gatewayExportService;
+    private final GatewayResponseCache gatewayResponseCache;
+    private final IdempotentRequests idempotentRequests;
+    private final ObjectWriter importResultWriter;
 
     @Autowired
-    public GatewayController(ModelMapper modelMapper, GatewayService gatewayService) {
-        this.modelMapper = modelMapper;
+    public GatewayController(GatewayMapper gatewayMapper, PeripheralMapper peripheralMapper, GatewayService gatewayService,
+                             GatewayImportService gatewayImportService, GatewayExportService gatewayExportService,
+                             GatewayResponseCache gatewayResponseCache, IdempotentRequests idempotentRequests,
+                             ObjectMapper objectMapper) {
+        this.gatewayMapper = gatewayMapper;
+        this.peripheralMapper = peripheralMapper;
         this.gatewayService = gatewayService;
+        this.gatewayImportService = gatewayImportService;
+        this.gatewayExportService = gatewayExportService;
+        this.gatewayResponseCache = gatewayResponseCache;
+        this.idempotentRequests = idempotentRequests;
+        this.importResultWriter = objectMapper.writerFor(GatewayImportResultDTO.class);
     }
 
+    /**
+     * A retry carrying the Idempotency-Key of an earlier request gets that request's response, see {@link IdempotentRequests}
+     * */
     @PostMapping("")
     @ResponseStatus(code = HttpStatus.CREATED)
-    public GatewayResponseDTO createGateway(@Valid @RequestBody CreateGatewayDTO createGatewayDTO) {
+    public GatewayResponseDTO createGateway(@RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+                                            @Valid @RequestBody CreateGatewayDTO createGatewayDTO) {
 
-        Gateway gateway = gatewayService.createGateway(createGatewayDTO);
+        return idempotentRequests.execute("POST /gateway", idempotencyKey, createGatewayDTO, () -> {
 
-        GatewayResponseDTO gatewayResponseDTO = modelMapper.map(gateway, GatewayResponseDTO.class);
+            Gateway gateway = gatewayService.createGateway(createGatewayDTO);
 
-        return gatewayResponseDTO;
+            GatewayResponseDTO gatewayResponseDTO = gatewayMapper.toDto(gateway);
+
+            return gatewayResponseDTO;
+        });
 
     }
 
-    @GetMapping("")
-    public Page<GatewayResponseDTO> getGateways(@RequestParam int size, @RequestParam int page) {
+    /**
+     * Bulk import from a JSON array or newline delimited JSON body of gateways, read and stored incrementally.
+     * Responds with one newline delimited result per item, written while the body is still being read.
+     * */
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importGateways(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        OutputStream results = response.getOutputStream();
+
+        gatewayImportService.importGateways(request.getInputStream(), result -> {
+            try {
+                results.write(importResultWriter.writeValueAsBytes(result));
+                results.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        results.flush();
+
+    }
+
+    /**
+     * Every gateway with its peripherals, one JSON object per line, streamed from a single database cursor
+     * */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportGateways(HttpServletResponse response) throws IOException {
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        gatewayExportService.exportGateways(response.getOutputStream());
+
+    }
+
+    /**
+     * Offset pagination, count is one of none, approximate or exact and decides how totalElements is computed,
+     * with none the response carries no totals at all.
+     * A request with a validator is compared first, a matching If-None-Match is answered with 304 after reading only
+     * the page's IDs and modification times. Otherwise the ETag is built from the page once it is loaded.
+     * cursor, cidr and ip select the other listings, a request combining them matches none and is rejected with 400.
+     * Every listing takes at most {@link PageParameters#MAX_PAGE_SIZE} gateways per page.
+     * */
+    @GetMapping(value = "", params = {"!cursor", "!cidr", "!ip"})
+    public Slice<GatewayResponseDTO> getGateways(@RequestParam int size, @RequestParam int page,
+                                                 @RequestParam(defaultValue = "exact") String count, WebRequest request) {
+
+        PageParameters.check(size, page);
 
-        Page<Gateway> gateways = gatewayService.getGateways(size, page);
+        CountMode countMode = CountMode.of(count);
 
-        Page<GatewayResponseDTO> gatewayDtos = gateways
-                .map(gateway -> modelMapper.map(gateway, GatewayResponseDTO.class));
+        if (hasValidators(request) && request.checkNotModified(gatewayService.getGatewaysTag(size, page, countMode))) {
+            return null;
+        }
+
+        Slice<Gateway> gateways = gatewayService.getGateways(size, page, countMode);
+
+        request.checkNotModified(GatewayListingTag.of(gateways, size, page, countMode));
+
+        Slice<GatewayResponseDTO> gatewayDtos = gateways
+                .map(gatewayMapper::toDto);
 
         return gatewayDtos;
 
     }
 
+    /**
+     * Keyset pagination, pass an empty cursor for the first page and the returned nextCursor for the following ones
+     * */
+    @GetMapping(value = "", params = {"cursor", "!cidr", "!ip"})
+    public CursorPageDTO<GatewayResponseDTO> getGatewaysByCursor(@RequestParam int size, @RequestParam String cursor) {
+
+        PageParameters.checkSize(size);
+
+        Slice<Gateway> gateways = gatewayService.getGatewaysAfter(size, cursor);
+
+        List<GatewayResponseDTO> gatewayDtos = gateways.stream()
+                .map(gatewayMapper::toDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+
+        if (gateways.hasNext()) {
+            Gateway lastGateway = gateways.getContent().get(gateways.getNumberOfElements() - 1);
+            nextCursor = GatewayCursor.of(lastGateway).encode();
+        }
+
+        return new CursorPageDTO<>(gatewayDtos, nextCursor);
+
+    }
+
+    /**
+     * Gateways in a subnet such as 10.20.0.0/16, ordered by address, without totals
+     * */
+    @GetMapping(value = "", params = {"cidr", "!cursor", "!ip"})
+    public Slice<GatewayResponseDTO> getGatewaysInCidr(@RequestParam String cidr, @RequestParam int size, @RequestParam int page) {
+
+        PageParameters.check(size, page);
+
+        return gatewayService.getGatewaysInCidr(cidr, size, page)
+                .map(gatewayMapper::toDto);
+
+    }
+
+    /**
+     * Gateways with exactly the given address, without totals
+     * */
+    @GetMapping(value = "", params = {"ip", "!cursor", "!cidr"})
+    public Slice<GatewayResponseDTO> getGatewaysByIpV4Address(@RequestParam("ip") String ipV4Address,
+                                                              @RequestParam int size, @RequestParam int page) {
+
+        PageParameters.check(size, page);
+
+        return gatewayService.getGatewaysByIpV4Address(ipV4Address, size, page)
+                .map(gatewayMapper::toDto);
+
+    }
+
+    /**
+     * Served from the gateway response cache, a miss loads and maps the gateway once.
+     * Only a request with a validator reads the gateway's version first, a matching If-None-Match or If-Modified-Since is answered
+     * with 304 without touching the peripherals or the cache. Otherwise the validators are those of the cached entry.
+     * Last-Modified is only sent and compared for versions in whole seconds, see {@link EntityTags#lastModifiedValidator(LocalDateTime)}.
+     * */
     @GetMapping("/{id}")
-    public GatewayResponseDTO getGateway(@PathVariable("id") String gatewayId) {
+    public GatewayResponseDTO getGateway(@PathVariable("id") String gatewayId, WebRequest request) {
+
+        if (!hasValidators(request)) {
 
-        Gateway gateway = gatewayService.getGateway(gatewayId);
+            GatewayResponseDTO gatewayResponseDTO = gatewayResponseCache.get(gatewayId, this::loadGateway);
 
-        GatewayResponseDTO gatewayResponseDTO = modelMapper.map(gateway, GatewayResponseDTO.class);
+            LocalDateTime updatedAt = gatewayResponseDTO.getUpdatedAt();
+
+            if (updatedAt != null) {
+                request.checkNotModified(EntityTags.of(updatedAt), EntityTags.lastModifiedValidator(updatedAt));
+            }
+
+            return gatewayResponseDTO;
+        }
+
+        Optional<LocalDateTime> version = gatewayService.getGatewayVersion(gatewayId);
+
+        if (version.isPresent() && request.checkNotModified(EntityTags.of(version.get()), EntityTags.lastModifiedValidator(version.get()))) {
+            return null;
+        }
+
+        GatewayResponseDTO gatewayResponseDTO = gatewayResponseCache.get(gatewayId, this::loadGateway);
+
+        // changed through another instance since it was cached here, the body must not be older than the validators sent with it
+        if (version.isPresent() && !version.get().equals(gatewayResponseDTO.getUpdatedAt())) {
+            gatewayResponseCache.invalidate(List.of(gatewayId));
+            gatewayResponseDTO = gatewayResponseCache.get(gatewayId, this::loadGateway);
+        }
 
         return gatewayResponseDTO;
 
     }
 
+    private static boolean hasValidators(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private GatewayResponseDTO loadGateway(String gatewayId) {
+        return gatewayMapper.toDto(gatewayService.getGateway(gatewayId));
+    }
+
+    @GetMapping("/cache/stats")
+    public CacheStatsDTO getGatewayCacheStats() {
+
+        CacheStats stats = gatewayResponseCache.getStats();
+
+        return new CacheStatsDTO(gatewayResponseCache.getEstimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.loadFailureCount(), stats.evictionCount());
+
+    }
+
+    /**
+     * Retries with the Idempotency-Key of an earlier request neither create another peripheral nor count against the gateway's cap
+     * */
     @PostMapping("/peripheral")
     @ResponseStatus(HttpStatus.CREATED)
-    public PeripheralResponseDTO createGatewayPeripheral(@Valid @RequestBody CreatePeripheralRequestDTO createPeripheralDTO) {
+    public PeripheralResponseDTO createGatewayPeripheral(@RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+                                                         @Valid @RequestBody CreatePeripheralRequestDTO createPeripheralDTO) {
+
+        return idempotentRequests.execute("POST /gateway/peripheral", idempotencyKey, createPeripheralDTO, () -> {
+
+            Peripheral peripheral = gatewayService.createGatewayPeripheral(createPeripheralDTO);
+
+            PeripheralResponseDTO peripheralDTO = peripheralMapper.toDto(peripheral);
+
+            return peripheralDTO;
+        });
+
+    }
 
-        Peripheral peripheral = gatewayService.createGatewayPeripheral(createPeripheralDTO);
+    /**
+     * Sets the status of the listed peripheral IDs or of every peripheral of the given gateway in bulk
+     * */
+    @PatchMapping("/peripheral/status")
+    public UpdatePeripheralStatusResponseDTO updatePeripheralStatus(@Valid @RequestBody UpdatePeripheralStatusRequestDTO updateStatusDTO) {
 
-        PeripheralResponseDTO peripheralDTO = modelMapper.map(peripheral, PeripheralResponseDTO.class);
+        int updated = gatewayService.updatePeripheralStatus(updateStatusDTO);
 
-        return peripheralDTO;
+        return new UpdatePeripheralStatusResponseDTO(updated);
 
     }
 
@@ -0,0 +1,43 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayView;
+import com.musala.test.samplegatewayservice.services.CountMode;
+import com.musala.test.samplegatewayservice.services.GatewayReadService;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Gateway reads served from single statement projections, same responses as the corresponding {@link GatewayController} reads
+ * */
+@RestController
+@RequestMapping("/view/gateway")
+public class GatewayViewController {
+
+    private final GatewayReadService gatewayReadService;
+
+    public GatewayViewController(GatewayReadService gatewayReadService) {
+        this.gatewayReadService = gatewayReadService;
+    }
+
+    @GetMapping("")
+    public Slice<GatewayView> getGateways(@RequestParam int size, @RequestParam int page,
+                                          @RequestParam(defaultValue = "exact") String count) {
+
+        PageParameters.check(size, page);
+
+        return gatewayReadService.getGateways(size, page, CountMode.of(count));
+
+    }
+
+    @GetMapping("/{id}")
+    public GatewayView getGateway(@PathVariable("id") String gatewayId) {
+
+        return gatewayReadService.getGateway(gatewayId);
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+public class InvalidRequestParameterException extends RuntimeException {
+
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestParameterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidRequestParameterException(Throwable cause) {
+        super(cause);
+    }
+
+    public InvalidRequestParameterException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
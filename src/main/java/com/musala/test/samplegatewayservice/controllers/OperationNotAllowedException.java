@@ -1,9 +1,13 @@
 package com.musala.test.samplegatewayservice.controllers;
 
+/**
+ * Rejection of an operation the current state doesn't allow, such as adding a peripheral to a full gateway.
+ * The message constructor leaves out the stack trace, the message is all the client gets and all that's needed to tell rejections apart.
+ * */
 public class OperationNotAllowedException extends RuntimeException {
 
     public OperationNotAllowedException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public OperationNotAllowedException(String message, Throwable cause) {
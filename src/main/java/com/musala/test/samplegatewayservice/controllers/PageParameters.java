@@ -0,0 +1,30 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+/**
+ * Bounds of the paged listings of the servlet controllers, a page is loaded and mapped in memory at once.
+ * Larger fleets are read page by page or through the export.
+ * */
+final class PageParameters {
+
+    static final int MAX_PAGE_SIZE = 1_000;
+
+    private PageParameters() {
+    }
+
+    static void check(int size, int page) {
+
+        checkSize(size);
+
+        if (page < 0) {
+            throw new InvalidRequestParameterException("Page must not be negative.");
+        }
+    }
+
+    static void checkSize(int size) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestParameterException("Size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+}
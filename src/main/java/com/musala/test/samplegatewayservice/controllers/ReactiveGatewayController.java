@@ -0,0 +1,58 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.repo.ReactiveGatewayRepo;
+import com.musala.test.samplegatewayservice.services.EntityNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variants of the gateway reads, served over R2DBC without holding a request thread while the database works.
+ * Listings requested as application/x-ndjson are streamed with backpressure, as application/json they are collected first.
+ * This is Spring MVC on Tomcat returning Reactor types, not WebFlux: the worker is released through servlet async processing
+ * while the query runs and taken again to write the response, so only the database access is non-blocking.
+ * */
+@RestController
+@RequestMapping("/reactive/gateway")
+@ConditionalOnProperty(name = "gateway.reactive.enabled", havingValue = "true")
+public class ReactiveGatewayController {
+
+    /**
+     * Upper bound of one reactive listing, larger fleets are read page by page or through the export
+     * */
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    private final ReactiveGatewayRepo reactiveGatewayRepo;
+
+    public ReactiveGatewayController(ReactiveGatewayRepo reactiveGatewayRepo) {
+        this.reactiveGatewayRepo = reactiveGatewayRepo;
+    }
+
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<GatewayResponseDTO> getGateways(@RequestParam int size, @RequestParam int page) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE || page < 0) {
+            return Flux.error(new InvalidRequestParameterException(
+                    "Size must be between 1 and " + MAX_PAGE_SIZE + " and page must not be negative."));
+        }
+
+        return reactiveGatewayRepo.findGateways(size, (long) page * size);
+
+    }
+
+    @GetMapping("/{id}")
+    public Mono<GatewayResponseDTO> getGateway(@PathVariable("id") String gatewayId) {
+
+        return reactiveGatewayRepo.findGateway(gatewayId)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId)));
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.musala.test.samplegatewayservice.dtos.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private long size;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    private long loadFailureCount;
+
+    private long evictionCount;
+
+}
@@ -0,0 +1,42 @@
+package com.musala.test.samplegatewayservice.dtos.datasource;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSourceStatsDTO {
+
+    private String name;
+
+    /**
+     * PRIMARY or REPLICA
+     * */
+    private String role;
+
+    private int activeConnections;
+
+    private int idleConnections;
+
+    private int totalConnections;
+
+    private int threadsAwaitingConnection;
+
+    /**
+     * Connections handed out by the routing datasource to this pool since startup
+     * */
+    private long routedConnections;
+
+    /**
+     * False while a replica lags more than the allowed maximum, reads then skip it
+     * */
+    private boolean inSync;
+
+    /**
+     * Replication lag measured by the last heartbeat check, -1 when it could not be measured
+     * */
+    private long lagMillis;
+
+}
@@ -0,0 +1,34 @@
+package com.musala.test.samplegatewayservice.dtos.gateway;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorDetails;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a bulk gateway import, index is the zero based position of the item in the uploaded body
+ * */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GatewayImportResultDTO {
+
+    private long index;
+
+    private Status status;
+
+    private String id;
+
+    private List<ErrorDetails> errors;
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+}
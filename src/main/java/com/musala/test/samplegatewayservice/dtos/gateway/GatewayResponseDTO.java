@@ -1,9 +1,11 @@
 package com.musala.test.samplegatewayservice.dtos.gateway;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,4 +21,10 @@ public class GatewayResponseDTO {
 
     private List<PeripheralResponseDTO> peripherals = new ArrayList<>();
 
+    /**
+     * Version the response was built from, sent as ETag and Last-Modified headers instead of in the body
+     * */
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
 }
@@ -0,0 +1,22 @@
+package com.musala.test.samplegatewayservice.dtos.gateway;
+
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralView;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable read model of a gateway, projected straight from SQL rows. Serialized with the same fields as {@link GatewayResponseDTO}.
+ * */
+@Value
+public class GatewayView {
+
+    String id;
+
+    String name;
+
+    String ipV4Address;
+
+    List<PeripheralView> peripherals;
+
+}
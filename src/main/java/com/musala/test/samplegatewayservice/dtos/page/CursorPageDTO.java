@@ -0,0 +1,22 @@
+package com.musala.test.samplegatewayservice.dtos.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content = new ArrayList<>();
+
+    /**
+     * Opaque token to pass as the cursor parameter for the next page, null when this is the last page
+     * */
+    private String nextCursor;
+
+}
@@ -0,0 +1,21 @@
+package com.musala.test.samplegatewayservice.dtos.peripheral;
+
+import lombok.Value;
+
+/**
+ * Immutable read model of a peripheral, projected straight from SQL rows. Serialized with the same fields as {@link PeripheralResponseDTO}.
+ * */
+@Value
+public class PeripheralView {
+
+    Long id;
+
+    String name;
+
+    String vendor;
+
+    String gatewayId;
+
+    String status;
+
+}
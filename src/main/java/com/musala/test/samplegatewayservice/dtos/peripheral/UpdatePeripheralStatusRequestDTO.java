@@ -0,0 +1,33 @@
+package com.musala.test.samplegatewayservice.dtos.peripheral;
+
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Targets either the listed peripherals or every peripheral of a gateway, exactly one of the two must be given
+ * */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdatePeripheralStatusRequestDTO {
+
+    /**
+     * Upper bound of the listed IDs, they are all updated in one transaction, larger sets go by gateway or in several requests
+     * */
+    public static final int MAX_PERIPHERAL_IDS = 10_000;
+
+    @Size(max = MAX_PERIPHERAL_IDS, message = "At most " + MAX_PERIPHERAL_IDS + " peripheral IDs per request.")
+    private List<Long> peripheralIds;
+
+    private String gatewayId;
+
+    @NotNull
+    private PeripheralStatus status;
+
+}
@@ -0,0 +1,17 @@
+package com.musala.test.samplegatewayservice.dtos.peripheral;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdatePeripheralStatusResponseDTO {
+
+    /**
+     * Peripherals whose status actually changed, the ones already in the target status are not counted
+     * */
+    private int updated;
+
+}
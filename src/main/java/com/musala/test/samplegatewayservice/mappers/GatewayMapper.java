@@ -0,0 +1,30 @@
+package com.musala.test.samplegatewayservice.mappers;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Compile time generated replacement of the ModelMapper conversions for gateways, nested peripherals go through {@link PeripheralMapper}
+ * */
+@Mapper(
+        componentModel = "spring",
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        uses = PeripheralMapper.class,
+        unmappedTargetPolicy = ReportingPolicy.ERROR
+)
+public interface GatewayMapper {
+
+    GatewayResponseDTO toDto(Gateway gateway);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "peripherals", ignore = true)
+    Gateway toEntity(CreateGatewayDTO createGatewayDTO);
+
+}
@@ -0,0 +1,31 @@
+package com.musala.test.samplegatewayservice.mappers;
+
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * Compile time generated replacement of the ModelMapper conversions for peripherals,
+ * {@link com.musala.test.samplegatewayservice.models.PeripheralStatus} is mapped by its name in both directions
+ * */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PeripheralMapper {
+
+    PeripheralResponseDTO toDto(Peripheral peripheral);
+
+    @IterableMapping(nullValueMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+    List<PeripheralResponseDTO> toDtos(List<Peripheral> peripherals);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Peripheral toEntity(CreatePeripheralRequestDTO createPeripheralRequestDTO);
+
+}
@@ -1,11 +1,13 @@
 package com.musala.test.samplegatewayservice.models;
 
+import com.musala.test.samplegatewayservice.models.types.UuidBinaryStringType;
 import com.musala.test.samplegatewayservice.validation.annotations.IpV4Address;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -23,10 +25,14 @@ import java.util.List;
 @Table(name = "gateways")
 public class Gateway extends AuditModel {
 
+    /**
+     * Time ordered UUID, canonical string in Java and BINARY(16) in the database
+     * */
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
-    @Column(name = "id", updatable = false, nullable = false)
+    @GeneratedValue(generator = "time_ordered_uuid")
+    @GenericGenerator(name = "time_ordered_uuid", strategy = "com.musala.test.samplegatewayservice.models.ids.TimeOrderedUuidGenerator")
+    @Type(type = UuidBinaryStringType.NAME)
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "binary(16)")
     private String id;
 
     private String name;
@@ -1,9 +1,11 @@
 package com.musala.test.samplegatewayservice.models;
 
+import com.musala.test.samplegatewayservice.models.types.UuidBinaryStringType;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -24,7 +26,7 @@ public class Peripheral extends AuditModel {
     @GeneratedValue(generator = "peripheral_id_generator")
     @GenericGenerator(
             name = "peripheral_id_generator",
-            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            strategy = "com.musala.test.samplegatewayservice.models.ids.PeripheralIdGenerator",
             parameters = {
                     @Parameter(name = "sequence_name", value = "peripheral_id_sequence"),
                     @Parameter(name = "initial_value", value = "1"),
@@ -38,7 +40,8 @@ public class Peripheral extends AuditModel {
     private String vendor;
 
     @NotNull
-    @Column(name = "gateway_id")
+    @Type(type = UuidBinaryStringType.NAME)
+    @Column(name = "gateway_id", columnDefinition = "binary(16)")
     private String gatewayId;
 
     @Enumerated(value = EnumType.STRING)
@@ -0,0 +1,70 @@
+package com.musala.test.samplegatewayservice.models.ids;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Peripheral ID generator whose strategy is picked by configuration, see {@link PeripheralIdStrategy}.
+ * Both sequence strategies keep using the peripheral_id_sequence table, so instances may be switched between them one at a time.
+ * */
+public class PeripheralIdGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY_SETTING = "gateway.peripheral.id.strategy";
+
+    public static final String BLOCK_SIZE_SETTING = "gateway.peripheral.id.block-size";
+
+    public static final String NODE_ID_SETTING = "gateway.peripheral.id.node-id";
+
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+
+        Map settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+
+        PeripheralIdStrategy strategy = PeripheralIdStrategy.of(ConfigurationHelper.getString(STRATEGY_SETTING, settings, PeripheralIdStrategy.SEQUENCE.name()));
+
+        Properties sequenceParams = new Properties();
+        sequenceParams.putAll(params);
+
+        if (strategy == PeripheralIdStrategy.POOLED_LO) {
+            sequenceParams.setProperty(INCREMENT_PARAM, String.valueOf(ConfigurationHelper.getInt(BLOCK_SIZE_SETTING, settings, 50)));
+            sequenceParams.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        }
+
+        if (strategy == PeripheralIdStrategy.SNOWFLAKE) {
+            Integer nodeId = ConfigurationHelper.getInteger(NODE_ID_SETTING, settings);
+
+            if (nodeId == null) {
+                throw new MappingException(NODE_ID_SETTING + " is required by the snowflake strategy");
+            }
+
+            snowflakeIdGenerator = new SnowflakeIdGenerator(nodeId);
+        }
+
+        // the sequence table is still registered for snowflake so that switching strategies needs no schema change
+        super.configure(type, sequenceParams, serviceRegistry);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+
+        if (snowflakeIdGenerator != null) {
+            return snowflakeIdGenerator.nextId();
+        }
+
+        return super.generate(session, object);
+    }
+
+}
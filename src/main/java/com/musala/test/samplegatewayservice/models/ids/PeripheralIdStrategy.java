@@ -0,0 +1,29 @@
+package com.musala.test.samplegatewayservice.models.ids;
+
+import java.util.Locale;
+
+/**
+ * How {@link PeripheralIdGenerator} hands out peripheral IDs, selected with the gateway.peripheral.id.strategy property
+ * */
+public enum PeripheralIdStrategy {
+
+    /**
+     * One locked round trip on the peripheral_id_sequence table per insert
+     * */
+    SEQUENCE,
+
+    /**
+     * One round trip on the peripheral_id_sequence table per block of IDs, the block is handed out from memory
+     * */
+    POOLED_LO,
+
+    /**
+     * Time and node based 64 bit IDs, no database access at all
+     * */
+    SNOWFLAKE;
+
+    public static PeripheralIdStrategy of(String value) {
+        return PeripheralIdStrategy.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+}
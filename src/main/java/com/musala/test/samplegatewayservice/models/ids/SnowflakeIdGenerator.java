@@ -0,0 +1,90 @@
+package com.musala.test.samplegatewayservice.models.ids;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 64 bit IDs made of 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node ID and a 12 bit per millisecond sequence.
+ * IDs are unique across instances as long as every instance runs with its own node ID, and grow with time on each instance.
+ * Guarded by a lock rather than a monitor so a virtual thread waiting for it doesn't pin its carrier thread.
+ * */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 2021-07-12T00:00:00Z, leaves the 41 bit timestamp room until 2090
+     * */
+    public static final long EPOCH_MILLIS = 1626048000000L;
+
+    public static final int NODE_ID_BITS = 10;
+
+    public static final int SEQUENCE_BITS = 12;
+
+    public static final long MAX_NODE_ID = (1L << NODE_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long lastMillis = -1;
+
+    private long sequence;
+
+    public SnowflakeIdGenerator(long nodeId) {
+
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+
+        lock.lock();
+
+        try {
+            long millis = currentMillis();
+
+            if (millis < lastMillis) {
+                // clock moved backwards, keep issuing from the last known millisecond rather than risking duplicates
+                millis = lastMillis;
+            }
+
+            if (millis == lastMillis) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+
+                if (sequence == 0) {
+                    millis = waitForNextMillis(lastMillis);
+                }
+            } else {
+                sequence = 0;
+            }
+
+            lastMillis = millis;
+
+            return ((millis - EPOCH_MILLIS) << (NODE_ID_BITS + SEQUENCE_BITS))
+                    | (nodeId << SEQUENCE_BITS)
+                    | sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected long currentMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private long waitForNextMillis(long afterMillis) {
+
+        long millis = currentMillis();
+
+        while (millis <= afterMillis) {
+            Thread.onSpinWait();
+            millis = currentMillis();
+        }
+
+        return millis;
+    }
+
+}
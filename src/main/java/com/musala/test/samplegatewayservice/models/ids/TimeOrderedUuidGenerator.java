@@ -0,0 +1,40 @@
+package com.musala.test.samplegatewayservice.models.ids;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version 7 UUIDs, a 48 bit millisecond timestamp followed by random bits. Consecutive IDs land next to each other
+ * in the primary key index instead of at random pages like version 4 UUIDs do.
+ * <p>
+ * The random bits come from {@link ThreadLocalRandom}: a shared {@code SecureRandom} synchronizes every call, which
+ * serializes concurrent inserts and pins virtual threads. The IDs only need to be unique, not unguessable.
+ * */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    public static UUID nextUuid() {
+
+        long millis = System.currentTimeMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long mostSignificantBits = (millis << 16)
+                | 0x7000L
+                | (random.nextLong() & 0x0FFFL);
+
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        return nextUuid().toString();
+    }
+
+}
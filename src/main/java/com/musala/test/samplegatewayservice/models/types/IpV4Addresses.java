@@ -0,0 +1,95 @@
+package com.musala.test.samplegatewayservice.models.types;
+
+/**
+ * Parsing and formatting of dotted quad IPv4 addresses packed into an int, most significant byte first like INET_ATON.
+ * Accepts exactly what commons-validator's InetAddressValidator.isValidInet4Address accepts: four decimal octets of at most
+ * three ASCII digits, each at most 255 and without leading zeros. Parsing and validation allocate nothing.
+ * */
+public final class IpV4Addresses {
+
+    private static final int MIN_LENGTH = 7;
+
+    private static final int MAX_LENGTH = 15;
+
+    private static final long INVALID = -1;
+
+    private IpV4Addresses() {
+    }
+
+    public static boolean isValid(CharSequence value) {
+        return value != null && parseOrInvalid(value) != INVALID;
+    }
+
+    /**
+     * @return the address as an int, compare with {@link Integer#compareUnsigned(int, int)} or widen with {@link Integer#toUnsignedLong(int)}
+     * */
+    public static int parse(CharSequence value) {
+
+        long address = value == null ? INVALID : parseOrInvalid(value);
+
+        if (address == INVALID) {
+            throw new IllegalArgumentException("Not a dotted quad IPv4 address: " + value);
+        }
+
+        return (int) address;
+    }
+
+    public static String toString(int address) {
+
+        return new StringBuilder(MAX_LENGTH)
+                .append(address >>> 24).append('.')
+                .append((address >>> 16) & 0xff).append('.')
+                .append((address >>> 8) & 0xff).append('.')
+                .append(address & 0xff)
+                .toString();
+    }
+
+    /**
+     * @return the address as an unsigned value, or {@link #INVALID}
+     * */
+    private static long parseOrInvalid(CharSequence value) {
+
+        int length = value.length();
+
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return INVALID;
+        }
+
+        long address = 0;
+        int octet = 0;
+        int digits = 0;
+        int octets = 0;
+
+        for (int i = 0; i <= length; i++) {
+
+            char c = i < length ? value.charAt(i) : '.';
+
+            if (c == '.') {
+
+                if (digits == 0 || octet > 255 || ++octets > 4) {
+                    return INVALID;
+                }
+
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+
+            } else if (c >= '0' && c <= '9') {
+
+                // a leading zero is only allowed as the whole octet
+                if (digits == 3 || (digits == 1 && octet == 0)) {
+                    return INVALID;
+                }
+
+                octet = octet * 10 + (c - '0');
+                digits++;
+
+            } else {
+                return INVALID;
+            }
+        }
+
+        return octets == 4 ? address : INVALID;
+    }
+
+}
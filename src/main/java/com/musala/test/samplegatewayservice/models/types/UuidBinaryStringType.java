@@ -0,0 +1,23 @@
+package com.musala.test.samplegatewayservice.models.types;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.sql.BinaryTypeDescriptor;
+
+/**
+ * Maps a String attribute holding a canonical UUID to a BINARY(16) column.
+ * Unlike a JPA AttributeConverter it also applies to identifiers, so entities, DTOs and repositories keep using strings.
+ * */
+public class UuidBinaryStringType extends AbstractSingleColumnStandardBasicType<String> {
+
+    public static final String NAME = "com.musala.test.samplegatewayservice.models.types.UuidBinaryStringType";
+
+    public UuidBinaryStringType() {
+        super(BinaryTypeDescriptor.INSTANCE, UuidStringTypeDescriptor.INSTANCE);
+    }
+
+    @Override
+    public String getName() {
+        return "uuid-binary-string";
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.musala.test.samplegatewayservice.models.types;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversions between the canonical string form of a UUID used by the API and the 16 bytes stored in BINARY(16) key columns
+ * */
+public final class UuidBytes {
+
+    public static final int LENGTH = 16;
+
+    private static final int CANONICAL_LENGTH = 36;
+
+    private UuidBytes() {
+    }
+
+    /**
+     * @return true when the value is a UUID in canonical 8-4-4-4-12 hex form, in any letter case
+     * */
+    public static boolean isValid(String value) {
+
+        if (value == null || value.length() != CANONICAL_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < CANONICAL_LENGTH; i++) {
+
+            char c = value.charAt(i);
+
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static byte[] toBytes(String value) {
+
+        if (!isValid(value)) {
+            throw new IllegalArgumentException("Not a canonical UUID: " + value);
+        }
+
+        UUID uuid = UUID.fromString(value);
+
+        return ByteBuffer.allocate(LENGTH)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static String toString(byte[] bytes) {
+
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("A binary UUID has " + LENGTH + " bytes, got " + bytes.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.musala.test.samplegatewayservice.models.types;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+
+/**
+ * Java side of {@link UuidBinaryStringType}, keeps the canonical string in the entity and converts to bytes for JDBC
+ * */
+public class UuidStringTypeDescriptor extends AbstractTypeDescriptor<String> {
+
+    public static final UuidStringTypeDescriptor INSTANCE = new UuidStringTypeDescriptor();
+
+    public UuidStringTypeDescriptor() {
+        super(String.class);
+    }
+
+    @Override
+    public String toString(String value) {
+        return value;
+    }
+
+    @Override
+    public String fromString(String string) {
+        return string;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+
+        if (value == null) {
+            return null;
+        }
+
+        if (byte[].class.isAssignableFrom(type)) {
+            return (X) UuidBytes.toBytes(value);
+        }
+
+        if (String.class.isAssignableFrom(type)) {
+            return (X) value;
+        }
+
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof byte[]) {
+            return UuidBytes.toString((byte[]) value);
+        }
+
+        if (value instanceof String) {
+            return (String) value;
+        }
+
+        throw unknownWrap(value.getClass());
+    }
+
+}
@@ -1,8 +1,95 @@
 package com.musala.test.samplegatewayservice.repo;
 
 import com.musala.test.samplegatewayservice.models.Gateway;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Changes to a gateway's peripherals move the gateway's updated_at at least one microsecond past its previous value, so two changes
+ * within the same clock tick, or from an instance whose clock is behind, still give the gateway a new version
+ * */
 public interface GatewayRepo extends JpaRepository<Gateway, String> {
 
+    /**
+     * Offset page without the COUNT query issued by {@link #findAll(Pageable)}, one extra row is read to tell whether a next slice exists
+     * */
+    Slice<Gateway> findAllBy(Pageable pageable);
+
+    /**
+     * First keyset page, only the limit of the pageable is used, no count query is issued
+     * */
+    List<Gateway> findAllByOrderByCreatedAtAscIdAsc(Pageable pageable);
+
+    /**
+     * Keyset page seeking past the given (createdAt, id) position on the (created_at, id) index
+     * */
+    @Query("select g from Gateway g " +
+            "where g.createdAt >= :createdAt and (g.createdAt > :createdAt or g.id > :id) " +
+            "order by g.createdAt asc, g.id asc")
+    List<Gateway> findAllAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    /**
+     * Offset page of the gateways whose address is in the given range of unsigned numbers, read as a range of idx__gateways__ip_v4_number
+     * which already holds the rows in (ip_v4_number, id) order
+     * */
+    @Query(value = "SELECT * FROM gateways WHERE ip_v4_number BETWEEN :first AND :last " +
+            "ORDER BY ip_v4_number, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Gateway> findAllByIpV4NumberBetween(@Param("first") long first, @Param("last") long last,
+                                             @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Offset page of the gateways with exactly this address. A range of one value is read as a ref lookup,
+     * for which MariaDB no longer sees the (ip_v4_number, id) order of the index and sorts, so the equality is spelled out here.
+     * */
+    @Query(value = "SELECT * FROM gateways WHERE ip_v4_number = :number ORDER BY id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Gateway> findAllByIpV4Number(@Param("number") long number, @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Takes one of the gateway's peripheral slots if it has less than the given maximum, in a single conditional update.
+     * The row lock it takes serializes concurrent creations on the same gateway until the transaction ends.
+     * Like {@link #releasePeripheralSlot(String, LocalDateTime)} it also records the change as a modification of the gateway.
+     *
+     * @return 1 when a slot was taken, 0 when the gateway is full or does not exist
+     * */
+    @Modifying
+    @Query(value = "UPDATE gateways SET peripheral_count = peripheral_count + 1, " +
+            "updated_at = GREATEST(:updatedAt, updated_at + INTERVAL 1 MICROSECOND) " +
+            "WHERE id = UNHEX(REPLACE(:id, '-', '')) AND peripheral_count < :maxPeripherals", nativeQuery = true)
+    int reservePeripheralSlot(@Param("id") String id, @Param("maxPeripherals") int maxPeripherals,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query(value = "UPDATE gateways SET peripheral_count = peripheral_count - 1, " +
+            "updated_at = GREATEST(:updatedAt, updated_at + INTERVAL 1 MICROSECOND) " +
+            "WHERE id = UNHEX(REPLACE(:id, '-', '')) AND peripheral_count > 0", nativeQuery = true)
+    int releasePeripheralSlot(@Param("id") String id, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Marks the gateways as modified because their peripherals changed, so their validators change as well
+     * */
+    @Modifying
+    @Query("update Gateway g set g.updatedAt = function('GREATEST', :updatedAt, function('ADDTIME', g.updatedAt, '00:00:00.000001')) " +
+            "where g.id in :ids")
+    int touch(@Param("ids") Collection<String> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Last modification of the gateway or any of its peripherals, without loading either
+     * */
+    @Query("select g.updatedAt from Gateway g where g.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") String id);
+
+    /**
+     * Same offset page as {@link #findAllBy(Pageable)} with only the columns that make up the validator of the listing
+     * */
+    Slice<GatewayVersion> findVersionsBy(Pageable pageable);
+
 }
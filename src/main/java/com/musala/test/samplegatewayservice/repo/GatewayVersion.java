@@ -0,0 +1,14 @@
+package com.musala.test.samplegatewayservice.repo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity and last modification of a gateway, the state a listing's validator is computed from
+ * */
+public interface GatewayVersion {
+
+    String getId();
+
+    LocalDateTime getUpdatedAt();
+
+}
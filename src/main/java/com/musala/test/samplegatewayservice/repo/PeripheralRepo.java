@@ -1,12 +1,49 @@
 package com.musala.test.samplegatewayservice.repo;
 
 import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PeripheralRepo extends JpaRepository<Peripheral, Long> {
 
     List<Peripheral> findByGatewayIdIn(List<String> gatewayIds);
 
+    /**
+     * Gateways of the given peripherals that are not in the status yet, those whose responses change with the status update
+     * */
+    @Query("select distinct p.gatewayId from Peripheral p " +
+            "where p.id in :ids and (p.status is null or p.status <> :status)")
+    List<String> findGatewayIdsToUpdateByIdIn(@Param("ids") Collection<Long> ids, @Param("status") PeripheralStatus status);
+
+    @Query("select case when count(p) > 0 then true else false end from Peripheral p " +
+            "where p.gatewayId = :gatewayId and (p.status is null or p.status <> :status)")
+    boolean existsToUpdateByGatewayId(@Param("gatewayId") String gatewayId, @Param("status") PeripheralStatus status);
+
+    /**
+     * Sets the status of the given peripherals in one statement without loading them, rows already in the status are left untouched
+     *
+     * @return number of peripherals whose status changed
+     * */
+    @Modifying
+    @Query("update Peripheral p set p.status = :status, p.updatedAt = :updatedAt " +
+            "where p.id in :ids and (p.status is null or p.status <> :status)")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") PeripheralStatus status,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Same as {@link #updateStatusByIdIn(Collection, PeripheralStatus, LocalDateTime)} for every peripheral of a gateway
+     * */
+    @Modifying
+    @Query("update Peripheral p set p.status = :status, p.updatedAt = :updatedAt " +
+            "where p.gatewayId = :gatewayId and (p.status is null or p.status <> :status)")
+    int updateStatusByGatewayId(@Param("gatewayId") String gatewayId, @Param("status") PeripheralStatus status,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+
 }
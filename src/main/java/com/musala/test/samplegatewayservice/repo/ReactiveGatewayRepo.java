@@ -0,0 +1,128 @@
+package com.musala.test.samplegatewayservice.repo;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read only gateway queries over R2DBC, on the same tables and indexes as {@link GatewayRepo} and {@link PeripheralRepo}.
+ * Rows are mapped straight to response DTOs, there are no entities on the reactive path.
+ * */
+@Repository
+@ConditionalOnProperty(name = "gateway.reactive.enabled", havingValue = "true")
+public class ReactiveGatewayRepo {
+
+    /**
+     * Gateways of a listing are fetched in batches of this many, each batch costs one peripherals query
+     * */
+    static final int PERIPHERAL_BATCH_SIZE = 100;
+
+    private static final String PERIPHERAL_COLUMNS = "SELECT id, name, vendor, status, gateway_id FROM peripherals ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveGatewayRepo(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Mono<GatewayResponseDTO> findGateway(String gatewayId) {
+
+        if (!UuidBytes.isValid(gatewayId)) {
+            return Mono.empty();
+        }
+
+        byte[] id = UuidBytes.toBytes(gatewayId);
+
+        Mono<GatewayResponseDTO> gateway = databaseClient
+                .sql("SELECT id, name, ip_v4_address FROM gateways WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toGateway(row))
+                .one();
+
+        Mono<List<PeripheralResponseDTO>> peripherals = databaseClient
+                .sql(PERIPHERAL_COLUMNS + "WHERE gateway_id = :gatewayId")
+                .bind("gatewayId", id)
+                .map((row, metadata) -> toPeripheral(row))
+                .all()
+                .collectList();
+
+        return gateway.zipWith(peripherals, (gatewayDTO, peripheralDTOs) -> {
+            gatewayDTO.setPeripherals(peripheralDTOs);
+            return gatewayDTO;
+        });
+    }
+
+    /**
+     * Offset page in the same (created_at, id) order as the blocking listing. Gateways are emitted as downstream requests them,
+     * peripherals are attached per batch of {@link #PERIPHERAL_BATCH_SIZE} gateways without changing the order.
+     * */
+    public Flux<GatewayResponseDTO> findGateways(int size, long offset) {
+
+        return databaseClient
+                .sql("SELECT id, name, ip_v4_address FROM gateways ORDER BY created_at, id LIMIT :size OFFSET :offset")
+                .bind("size", size)
+                .bind("offset", offset)
+                .map((row, metadata) -> toGateway(row))
+                .all()
+                .buffer(PERIPHERAL_BATCH_SIZE)
+                .concatMap(this::attachPeripherals, 1);
+    }
+
+    private Flux<GatewayResponseDTO> attachPeripherals(List<GatewayResponseDTO> gateways) {
+
+        List<byte[]> gatewayIds = gateways.stream()
+                .map(gateway -> UuidBytes.toBytes(gateway.getId()))
+                .collect(Collectors.toList());
+
+        return databaseClient
+                .sql(PERIPHERAL_COLUMNS + "WHERE gateway_id IN (:gatewayIds)")
+                .bind("gatewayIds", gatewayIds)
+                .map((row, metadata) -> toPeripheral(row))
+                .all()
+                .collect(Collectors.groupingBy(PeripheralResponseDTO::getGatewayId))
+                .flatMapIterable(gatewayIdToPeripherals -> attach(gateways, gatewayIdToPeripherals));
+    }
+
+    private static List<GatewayResponseDTO> attach(List<GatewayResponseDTO> gateways,
+                                                   Map<String, List<PeripheralResponseDTO>> gatewayIdToPeripherals) {
+
+        for (GatewayResponseDTO gateway : gateways) {
+            gateway.setPeripherals(gatewayIdToPeripherals.getOrDefault(gateway.getId(), List.of()));
+        }
+
+        return gateways;
+    }
+
+    private static GatewayResponseDTO toGateway(Row row) {
+
+        GatewayResponseDTO gateway = new GatewayResponseDTO();
+        gateway.setId(UuidBytes.toString(row.get("id", byte[].class)));
+        gateway.setName(row.get("name", String.class));
+        gateway.setIpV4Address(row.get("ip_v4_address", String.class));
+
+        return gateway;
+    }
+
+    private static PeripheralResponseDTO toPeripheral(Row row) {
+
+        PeripheralResponseDTO peripheral = new PeripheralResponseDTO();
+        peripheral.setId(row.get("id", Long.class));
+        peripheral.setName(row.get("name", String.class));
+        peripheral.setVendor(row.get("vendor", String.class));
+        peripheral.setStatus(row.get("status", String.class));
+        peripheral.setGatewayId(UuidBytes.toString(row.get("gateway_id", byte[].class)));
+
+        return peripheral;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
+
+import java.util.Locale;
+
+/**
+ * How the total number of gateways is computed for a listing
+ * */
+public enum CountMode {
+
+    /**
+     * No total at all, the listing is returned as a slice
+     * */
+    NONE,
+
+    /**
+     * Total from the in-memory {@link GatewayCountProvider}, periodically reconciled with the database
+     * */
+    APPROXIMATE,
+
+    /**
+     * Total from a COUNT query on every call
+     * */
+    EXACT;
+
+    public static CountMode of(String value) {
+
+        try {
+            return CountMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("Invalid count mode: " + value + ", expected one of none, approximate, exact", e);
+        }
+
+    }
+
+}
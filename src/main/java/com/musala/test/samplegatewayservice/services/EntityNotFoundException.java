@@ -1,9 +1,13 @@
 package com.musala.test.samplegatewayservice.services;
 
+/**
+ * Expected outcome of a request, always answered by ApplicationControllerAdvice. Created from a message alone it captures no stack trace,
+ * clients retrying against it in a tight loop would otherwise pay for walking the whole request stack on every attempt.
+ * */
 public class EntityNotFoundException extends RuntimeException {
 
     public EntityNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public EntityNotFoundException(String message, Throwable cause) {
@@ -0,0 +1,48 @@
+package com.musala.test.samplegatewayservice.services;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * HTTP validators derived from audit timestamps. Audit timestamps are local date times of the JVM's default zone.
+ * */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Strong ETag of a single resource, every change of the resource moves its updatedAt
+     * */
+    public static String of(LocalDateTime updatedAt) {
+
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+
+        return '"' + Long.toHexString(micros) + '"';
+    }
+
+    /**
+     * Strong ETag of a composite resource, from a description of everything its representation depends on
+     * */
+    public static String ofState(String state) {
+        return '"' + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Last-Modified to send and compare for a single resource, -1 for none when updatedAt has a fraction of a second.
+     * HTTP dates have second precision, an If-Modified-Since of such a version would also match a change later within the same
+     * second, so those resources are only revalidated by their ETag.
+     * */
+    public static long lastModifiedValidator(LocalDateTime updatedAt) {
+        return updatedAt.getNano() == 0 ? lastModified(updatedAt) : -1;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.repo.GatewayRepo;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the total gateway count in memory so listings don't need a COUNT query.
+ * Creations on this instance are applied immediately, anything else (other instances, manual changes)
+ * is picked up by the periodic reconciliation against the database.
+ * */
+@Component
+@Log4j2
+public class GatewayCountProvider {
+
+    private static final long NOT_RECONCILED = -1;
+
+    private final GatewayRepo gatewayRepo;
+
+    private final AtomicLong count = new AtomicLong(NOT_RECONCILED);
+
+    public GatewayCountProvider(GatewayRepo gatewayRepo) {
+        this.gatewayRepo = gatewayRepo;
+    }
+
+    public long getApproximateCount() {
+
+        long current = count.get();
+
+        if (current == NOT_RECONCILED) {
+            return reconcile();
+        }
+
+        return current;
+
+    }
+
+    public void onGatewaysCreated(long created) {
+        count.getAndUpdate(current -> current == NOT_RECONCILED ? NOT_RECONCILED : current + created);
+    }
+
+    /**
+     * Replaces the count with the one of the database. Creations applied while the database counts are kept on top of it,
+     * setting the database's count would drop those not committed when the count was taken until the next reconciliation.
+     * */
+    @Scheduled(fixedDelayString = "${gateway.count.reconcile-interval:PT1M}")
+    public long reconcile() {
+
+        long before = count.get();
+
+        long exactCount = gatewayRepo.count();
+
+        long reconciled = count.updateAndGet(current -> before == NOT_RECONCILED || current == NOT_RECONCILED
+                ? exactCount
+                : exactCount + (current - before));
+
+        log.trace("Reconciled Gateway Count: {}, Drift: {}", reconciled, before == NOT_RECONCILED ? 0 : exactCount - before);
+
+        return reconciled;
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last gateway returned by a keyset page, ordered by (createdAt, id).
+ * Clients only ever see the encoded, opaque form.
+ */
+@Value
+public class GatewayCursor {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime createdAt;
+
+    String id;
+
+    public static GatewayCursor of(Gateway gateway) {
+        return new GatewayCursor(gateway.getCreatedAt(), gateway.getId());
+    }
+
+    public static GatewayCursor decode(String token) {
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+
+            if (separatorIndex <= 0) {
+                throw new InvalidRequestParameterException("Invalid cursor: " + token);
+            }
+
+            LocalDateTime createdAt = LocalDateTime.parse(decoded.substring(0, separatorIndex));
+            String id = decoded.substring(separatorIndex + 1);
+
+            if (!UuidBytes.isValid(id)) {
+                throw new InvalidRequestParameterException("Invalid cursor: " + token);
+            }
+
+            return new GatewayCursor(createdAt, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestParameterException("Invalid cursor: " + token, e);
+        }
+
+    }
+
+    public String encode() {
+
+        String raw = createdAt.toString() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+    }
+
+}
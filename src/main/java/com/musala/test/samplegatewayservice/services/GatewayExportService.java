@@ -0,0 +1,162 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Streams every gateway with its peripherals as newline delimited JSON, ordered by gateway ID.
+ * A single forward only query joins the peripherals, consecutive rows of the same gateway are merged into one line
+ * and written out before the next gateway is read, so only one gateway is held in memory at a time.
+ * */
+@Service
+@Log4j2
+public class GatewayExportService {
+
+    /**
+     * Ordered by the clustered primary key and joined through idx__peripherals__gateway_id, the rows of a gateway are
+     * adjacent and the database neither sorts nor buffers the result. IDs are time ordered, so this is close to creation order.
+     * */
+    private static final String EXPORT_QUERY = "SELECT g.id, g.name, g.ip_v4_address, " +
+            "p.id AS peripheral_id, p.name AS peripheral_name, p.vendor AS peripheral_vendor, p.status AS peripheral_status " +
+            "FROM gateways g LEFT JOIN peripherals p ON p.gateway_id = g.id " +
+            "ORDER BY g.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter gatewayWriter;
+    private final int fetchSize;
+
+    public GatewayExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Value("${gateway.export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.gatewayWriter = objectMapper.writerFor(GatewayResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Holds one pooled connection for the whole export, the output is flushed by the generator's buffer and once at the end
+     *
+     * @return number of gateways written
+     * */
+    public long exportGateways(OutputStream out) throws IOException {
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.setRootValueSeparator(null);
+
+            GatewayRowMerger merger = new GatewayRowMerger(generator);
+
+            jdbcTemplate.query(connection -> {
+
+                PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+
+                return statement;
+            }, merger);
+
+            merger.finish();
+
+            log.debug("Exported {} gateways", merger.getWritten());
+
+            return merger.getWritten();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+    }
+
+    private class GatewayRowMerger implements RowCallbackHandler {
+
+        private final JsonGenerator generator;
+
+        private byte[] currentId;
+
+        private GatewayResponseDTO current;
+
+        private long written;
+
+        GatewayRowMerger(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+
+            byte[] id = rs.getBytes("id");
+
+            if (!Arrays.equals(id, currentId)) {
+
+                write(current);
+
+                currentId = id;
+                current = new GatewayResponseDTO();
+                current.setId(UuidBytes.toString(id));
+                current.setName(rs.getString("name"));
+                current.setIpV4Address(rs.getString("ip_v4_address"));
+            }
+
+            long peripheralId = rs.getLong("peripheral_id");
+
+            if (!rs.wasNull()) {
+
+                PeripheralResponseDTO peripheral = new PeripheralResponseDTO();
+                peripheral.setId(peripheralId);
+                peripheral.setName(rs.getString("peripheral_name"));
+                peripheral.setVendor(rs.getString("peripheral_vendor"));
+                peripheral.setStatus(rs.getString("peripheral_status"));
+                peripheral.setGatewayId(current.getId());
+
+                current.getPeripherals().add(peripheral);
+            }
+
+        }
+
+        void finish() {
+            write(current);
+            current = null;
+        }
+
+        long getWritten() {
+            return written;
+        }
+
+        private void write(GatewayResponseDTO gateway) {
+
+            if (gateway == null) {
+                return;
+            }
+
+            try {
+                gatewayWriter.writeValue(generator, gateway);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            written++;
+        }
+
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorDetails;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayImportResultDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapper;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.repo.GatewayRepo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports gateways from a JSON array or newline delimited JSON body one item at a time, inserting them in chunks of
+ * gateway.import.chunk-size gateways per transaction. Memory use depends on the chunk size only, never on the body size.
+ * */
+@Service
+@Log4j2
+public class GatewayImportService {
+
+    private final ObjectReader itemReader;
+    private final ObjectReader createGatewayReader;
+    private final Validator validator;
+    private final GatewayRepo gatewayRepo;
+    private final GatewayMapper gatewayMapper;
+    private final GatewayCountProvider gatewayCountProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    @Autowired
+    public GatewayImportService(ObjectMapper objectMapper, Validator validator, GatewayRepo gatewayRepo,
+                                GatewayMapper gatewayMapper, GatewayCountProvider gatewayCountProvider,
+                                TransactionTemplate transactionTemplate, EntityManager entityManager,
+                                @Value("${gateway.import.chunk-size:500}") int chunkSize) {
+        this.itemReader = objectMapper.readerFor(JsonNode.class);
+        this.createGatewayReader = objectMapper.readerFor(CreateGatewayDTO.class);
+        this.validator = validator;
+        this.gatewayRepo = gatewayRepo;
+        this.gatewayMapper = gatewayMapper;
+        this.gatewayCountProvider = gatewayCountProvider;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Results are handed to the consumer as soon as they are known, created gateways once their chunk is committed.
+     * Items are read as JSON trees first, a well formed item that is not a gateway, like an object for the name, is reported
+     * as invalid and the import goes on. Malformed JSON ends the import since the rest of the body can't be read reliably,
+     * it is reported with the index of the item and its line and column, chunks committed before it are kept.
+     *
+     * @return number of gateways created
+     * */
+    public long importGateways(InputStream body, Consumer<GatewayImportResultDTO> resultConsumer) throws IOException {
+
+        List<PendingGateway> chunk = new ArrayList<>(chunkSize);
+        long created = 0;
+        long index = 0;
+
+        try (MappingIterator<JsonNode> items = itemReader.readValues(body)) {
+
+            while (true) {
+
+                JsonNode tree;
+
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+
+                    tree = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    JsonLocation location = e.getLocation();
+                    String at = location == null ? "" : " at line " + location.getLineNr() + ", column " + location.getColumnNr();
+                    resultConsumer.accept(invalid(index, List.of(new ErrorDetails(null,
+                            "Malformed JSON" + at + ", the import stopped here: " + e.getOriginalMessage()))));
+                    break;
+                }
+
+                CreateGatewayDTO item = null;
+                List<ErrorDetails> errors;
+
+                try {
+                    item = tree.isNull() ? null : createGatewayReader.readValue(tree);
+                    errors = validate(item);
+                } catch (JsonMappingException e) {
+                    errors = List.of(new ErrorDetails(fieldName(e), "Malformed item: " + e.getOriginalMessage()));
+                }
+
+                if (errors.isEmpty()) {
+                    chunk.add(new PendingGateway(index, gatewayMapper.toEntity(item)));
+                } else {
+                    resultConsumer.accept(invalid(index, errors));
+                }
+
+                if (chunk.size() == chunkSize) {
+                    created += insertChunk(chunk, resultConsumer);
+                    chunk.clear();
+                }
+
+                index++;
+            }
+        }
+
+        created += insertChunk(chunk, resultConsumer);
+
+        log.debug("Imported {} of {} gateways", created, index);
+
+        return created;
+
+    }
+
+    private List<ErrorDetails> validate(CreateGatewayDTO item) {
+
+        if (item == null) {
+            return List.of(new ErrorDetails(null, "Item must be a gateway object"));
+        }
+
+        Set<ConstraintViolation<CreateGatewayDTO>> violations = validator.validate(item);
+
+        return violations.stream()
+                .map(violation -> new ErrorDetails(violation.getPropertyPath().toString(), violation.getMessage()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Persists the chunk in one transaction, the inserts are sent in JDBC batches of hibernate.jdbc.batch_size statements.
+     * The persistence context is cleared afterwards so managed gateways don't pile up across chunks.
+     * */
+    private long insertChunk(List<PendingGateway> chunk, Consumer<GatewayImportResultDTO> resultConsumer) {
+
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                gatewayRepo.saveAll(chunk.stream().map(PendingGateway::getGateway).collect(Collectors.toList()));
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+
+            log.error("Could not insert a chunk of {} gateways starting at item {}", chunk.size(), chunk.get(0).getIndex(), e);
+
+            for (PendingGateway pendingGateway : chunk) {
+                resultConsumer.accept(new GatewayImportResultDTO(pendingGateway.getIndex(), GatewayImportResultDTO.Status.FAILED,
+                        null, List.of(new ErrorDetails(null, "Could not be stored"))));
+            }
+
+            return 0;
+        }
+
+        for (PendingGateway pendingGateway : chunk) {
+            resultConsumer.accept(new GatewayImportResultDTO(pendingGateway.getIndex(), GatewayImportResultDTO.Status.CREATED,
+                    pendingGateway.getGateway().getId(), null));
+        }
+
+        gatewayCountProvider.onGatewaysCreated(chunk.size());
+
+        return chunk.size();
+
+    }
+
+    private static String fieldName(JsonMappingException e) {
+
+        String fieldName = e.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("."));
+
+        return fieldName.isEmpty() ? null : fieldName;
+    }
+
+    private static GatewayImportResultDTO invalid(long index, List<ErrorDetails> errors) {
+        return new GatewayImportResultDTO(index, GatewayImportResultDTO.Status.INVALID, null, errors);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingGateway {
+
+        private final long index;
+
+        private final Gateway gateway;
+
+    }
+
+}
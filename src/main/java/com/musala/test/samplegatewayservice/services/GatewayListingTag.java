@@ -0,0 +1,60 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.models.Gateway;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+
+/**
+ * ETag of a page of the gateway listing, from the IDs and modifications of the page's gateways and the total or next page flag.
+ * Built alike from a loaded page and from the versions read by {@link GatewayService#getGatewaysTag(int, int, CountMode)},
+ * so both give the same tag for the same page.
+ * */
+public final class GatewayListingTag {
+
+    private final StringBuilder state;
+
+    public GatewayListingTag(int size, int page, CountMode countMode, boolean hasNext, Long total) {
+
+        state = new StringBuilder()
+                .append(page).append('|')
+                .append(size).append('|')
+                .append(countMode).append('|')
+                .append(hasNext);
+
+        if (total != null) {
+            state.append('|').append(total);
+        }
+    }
+
+    /**
+     * Tag of a page returned by {@link GatewayService#getGateways(int, int, CountMode)}, without another query
+     * */
+    public static String of(Slice<Gateway> gateways, int size, int page, CountMode countMode) {
+
+        Long total = countMode != CountMode.NONE && gateways instanceof Page
+                ? ((Page<Gateway>) gateways).getTotalElements()
+                : null;
+
+        GatewayListingTag tag = new GatewayListingTag(size, page, countMode, gateways.hasNext(), total);
+
+        for (Gateway gateway : gateways) {
+            tag.add(gateway.getId(), gateway.getUpdatedAt());
+        }
+
+        return tag.toETag();
+    }
+
+    public GatewayListingTag add(String gatewayId, LocalDateTime updatedAt) {
+
+        state.append('|').append(gatewayId).append('@').append(updatedAt);
+
+        return this;
+    }
+
+    public String toETag() {
+        return EntityTags.ofState(state.toString());
+    }
+
+}
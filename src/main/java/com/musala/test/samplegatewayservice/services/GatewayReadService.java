@@ -0,0 +1,227 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayView;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralView;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Gateway reads that fetch gateways together with their peripherals in a single statement and project the rows straight into
+ * {@link GatewayView}s, no entities are loaded, snapshotted or mapped on the way.
+ * Transactions are read only, which with the JPA transaction manager also sets the session flush mode to manual,
+ * so nothing pending is flushed before these queries run.
+ * */
+@Service
+public class GatewayReadService {
+
+    /**
+     * Reported on the returned pages, the SQL below orders by the same columns
+     * */
+    private static final Sort GATEWAY_ORDER = Sort.by("createdAt", "id");
+
+    private static final String VIEW_COLUMNS = "g.id, g.created_at, g.name, g.ip_v4_address, " +
+            "p.id AS peripheral_id, p.name AS peripheral_name, p.vendor AS peripheral_vendor, p.status AS peripheral_status";
+
+    /**
+     * The page is cut from the (created_at, id) index in a derived table and only its rows are joined with their peripherals.
+     * Rows come back grouped by nothing in particular, gateways are put back in listing order in memory.
+     * */
+    private static final String PAGE_FROM = " FROM (SELECT id, created_at, name, ip_v4_address FROM gateways " +
+            "ORDER BY created_at, id LIMIT ? OFFSET ?) g " +
+            "LEFT JOIN peripherals p ON p.gateway_id = g.id";
+
+    private static final String PAGE_QUERY = "SELECT " + VIEW_COLUMNS + PAGE_FROM;
+
+    /**
+     * Uncorrelated, evaluated once per statement and repeated on every row
+     * */
+    private static final String COUNTED_PAGE_QUERY = "SELECT " + VIEW_COLUMNS +
+            ", (SELECT COUNT(*) FROM gateways) AS total_gateways" + PAGE_FROM;
+
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM gateways";
+
+    private static final String GATEWAY_QUERY = "SELECT " + VIEW_COLUMNS + " FROM gateways g " +
+            "LEFT JOIN peripherals p ON p.gateway_id = g.id WHERE g.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GatewayCountProvider gatewayCountProvider;
+
+    public GatewayReadService(JdbcTemplate jdbcTemplate, GatewayCountProvider gatewayCountProvider) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gatewayCountProvider = gatewayCountProvider;
+    }
+
+    /**
+     * Same page, order and totals as {@link GatewayService#getGateways(int, int, CountMode)} in one round trip.
+     * An exact total is read by the same statement, a separate COUNT only runs when the page is past the last gateway.
+     * */
+    @Transactional(readOnly = true)
+    public Slice<GatewayView> getGateways(int size, int page, CountMode countMode) {
+
+        var pageRequest = PageRequest.of(page, size, GATEWAY_ORDER);
+
+        if (countMode == CountMode.EXACT) {
+
+            GatewayRows rows = new GatewayRows(true);
+
+            jdbcTemplate.query(COUNTED_PAGE_QUERY, rows, size, pageRequest.getOffset());
+
+            return PageableExecutionUtils.getPage(rows.toViews(), pageRequest,
+                    () -> rows.hasTotal() ? rows.getTotal() : countGateways());
+        }
+
+        GatewayRows rows = new GatewayRows(false);
+
+        // one extra gateway tells whether a next page exists
+        jdbcTemplate.query(PAGE_QUERY, rows, size + 1, pageRequest.getOffset());
+
+        List<GatewayView> gateways = rows.toViews();
+
+        boolean hasNext = gateways.size() > size;
+
+        if (hasNext) {
+            gateways = gateways.subList(0, size);
+        }
+
+        if (countMode == CountMode.APPROXIMATE) {
+            return new PageImpl<>(gateways, pageRequest, gatewayCountProvider.getApproximateCount());
+        }
+
+        return new SliceImpl<>(gateways, pageRequest, hasNext);
+
+    }
+
+    @Transactional(readOnly = true)
+    public GatewayView getGateway(String gatewayId) {
+
+        if (!UuidBytes.isValid(gatewayId)) {
+            throw new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId);
+        }
+
+        GatewayRows rows = new GatewayRows(false);
+
+        jdbcTemplate.query(GATEWAY_QUERY, rows, (Object) UuidBytes.toBytes(gatewayId));
+
+        return rows.toViews().stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId));
+
+    }
+
+    private long countGateways() {
+
+        Long count = jdbcTemplate.queryForObject(COUNT_QUERY, Long.class);
+
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Collects the joined rows of one statement, one entry per gateway however its peripheral rows are interleaved
+     * */
+    private static class GatewayRows implements RowCallbackHandler {
+
+        private static final Comparator<GatewayRow> LISTING_ORDER = Comparator
+                .comparing((GatewayRow row) -> row.createdAt)
+                .thenComparing(row -> row.id);
+
+        private final boolean counted;
+
+        private final Map<String, GatewayRow> gateways = new LinkedHashMap<>();
+
+        private long total = -1;
+
+        GatewayRows(boolean counted) {
+            this.counted = counted;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+
+            String id = UuidBytes.toString(rs.getBytes("id"));
+
+            GatewayRow gateway = gateways.get(id);
+
+            if (gateway == null) {
+                gateway = new GatewayRow(id, rs.getObject("created_at", LocalDateTime.class),
+                        rs.getString("name"), rs.getString("ip_v4_address"));
+                gateways.put(id, gateway);
+            }
+
+            if (counted) {
+                total = rs.getLong("total_gateways");
+            }
+
+            long peripheralId = rs.getLong("peripheral_id");
+
+            if (!rs.wasNull()) {
+                gateway.peripherals.add(new PeripheralView(peripheralId, rs.getString("peripheral_name"),
+                        rs.getString("peripheral_vendor"), id, rs.getString("peripheral_status")));
+            }
+
+        }
+
+        boolean hasTotal() {
+            return total >= 0;
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        /**
+         * Canonical UUID strings compare like their binary form, so this is the (created_at, id) order of the index
+         * */
+        List<GatewayView> toViews() {
+
+            return gateways.values().stream()
+                    .sorted(LISTING_ORDER)
+                    .map(GatewayRow::toView)
+                    .collect(Collectors.toList());
+        }
+
+    }
+
+    private static class GatewayRow {
+
+        private final String id;
+        private final LocalDateTime createdAt;
+        private final String name;
+        private final String ipV4Address;
+        private final List<PeripheralView> peripherals = new ArrayList<>();
+
+        GatewayRow(String id, LocalDateTime createdAt, String name, String ipV4Address) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.name = name;
+            this.ipV4Address = ipV4Address;
+        }
+
+        GatewayView toView() {
+
+            peripherals.sort(Comparator.comparing(PeripheralView::getId));
+
+            return new GatewayView(id, name, ipV4Address, List.copyOf(peripherals));
+        }
+
+    }
+
+}
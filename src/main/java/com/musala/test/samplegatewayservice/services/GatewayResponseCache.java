@@ -0,0 +1,112 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process cache of assembled single gateway responses, bounded by size and by time since the entry was loaded.
+ * Entries must be treated as read only, the same instance is handed to every reader.
+ * Entries are futures so a load runs on the reading thread outside of the cache's internal locks, waiting readers park
+ * on the future instead of blocking inside a monitor, which would pin their carrier thread when running on virtual threads.
+ * Gateway IDs are keys in lower case, the API accepts them in any letter case and a write must drop what a read in another case cached.
+ * */
+@Component
+@Log4j2
+public class GatewayResponseCache {
+
+    private final AsyncCache<String, GatewayResponseDTO> cache;
+
+    public GatewayResponseCache(@Value("${gateway.cache.gateway.maximum-size:10000}") long maximumSize,
+                                @Value("${gateway.cache.gateway.expire-after-write:PT30S}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Cached response of the gateway, loaded once by the loader when missing, concurrent readers of a missing gateway wait for that load.
+     * Nothing is cached when the loader throws, the exception is rethrown to every waiting reader.
+     * */
+    public GatewayResponseDTO get(String gatewayId, Function<String, GatewayResponseDTO> loader) {
+
+        CompletableFuture<GatewayResponseDTO> load = new CompletableFuture<>();
+
+        CompletableFuture<GatewayResponseDTO> cached = cache.get(key(gatewayId), (id, executor) -> load);
+
+        if (cached == load) {
+            try {
+                load.complete(loader.apply(gatewayId));
+            } catch (RuntimeException | Error e) {
+                // a failed future is removed from the cache and counted as a load failure
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached gateways once the current transaction commits, or right away without a transaction.
+     * Dropping before the commit would let a concurrent read cache the not yet committed, old state again.
+     * */
+    public void invalidate(Collection<String> gatewayIds) {
+
+        if (gatewayIds.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = gatewayIds.stream().map(GatewayResponseCache::key).collect(Collectors.toList());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidateAll(keys);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidateAll(keys);
+            }
+        });
+
+    }
+
+    private static String key(String gatewayId) {
+        return gatewayId.toLowerCase(Locale.ROOT);
+    }
+
+    public CacheStats getStats() {
+        return cache.synchronous().stats();
+    }
+
+    public long getEstimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+}
@@ -1,53 +1,202 @@
 package com.musala.test.samplegatewayservice.services;
 
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
 import com.musala.test.samplegatewayservice.controllers.OperationNotAllowedException;
 import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
 import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusRequestDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapper;
+import com.musala.test.samplegatewayservice.mappers.PeripheralMapper;
 import com.musala.test.samplegatewayservice.models.Gateway;
 import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
 import com.musala.test.samplegatewayservice.repo.GatewayRepo;
+import com.musala.test.samplegatewayservice.repo.GatewayVersion;
 import com.musala.test.samplegatewayservice.repo.PeripheralRepo;
-import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@Log4j2
 public class GatewayService {
 
+    public static final int MAX_PERIPHERALS_PER_GATEWAY = 10;
+
+    /**
+     * Message of every cap rejection, fixed so its error response is serialized only once
+     * */
+    public static final String PERIPHERAL_CAP_MESSAGE = "You already have " + MAX_PERIPHERALS_PER_GATEWAY + " peripherals on this gateway.";
+
+    /**
+     * Upper bound of the IN list of one bulk status update statement
+     * */
+    public static final int MAX_PERIPHERAL_IDS_PER_UPDATE = 1000;
+
+    /**
+     * Same order as the (created_at, id) index, so offset pages are read from it without a filesort and are stable for equal timestamps
+     * */
+    private static final Sort GATEWAY_ORDER = Sort.by("createdAt", "id");
+
     private final GatewayRepo gatewayRepo;
     private final PeripheralRepo peripheralRepo;
-    private final ModelMapper modelMapper;
-
-    public GatewayService(GatewayRepo gatewayRepo, PeripheralRepo peripheralRepo, ModelMapper modelMapper) {
+    private final GatewayMapper gatewayMapper;
+    private final PeripheralMapper peripheralMapper;
+    private final GatewayCountProvider gatewayCountProvider;
+    private final GatewayResponseCache gatewayResponseCache;
+    private final Counter capRejections;
+
+    public GatewayService(GatewayRepo gatewayRepo, PeripheralRepo peripheralRepo, GatewayMapper gatewayMapper,
+                          PeripheralMapper peripheralMapper, GatewayCountProvider gatewayCountProvider,
+                          GatewayResponseCache gatewayResponseCache, MeterRegistry meterRegistry) {
         this.gatewayRepo = gatewayRepo;
         this.peripheralRepo = peripheralRepo;
-        this.modelMapper = modelMapper;
+        this.gatewayMapper = gatewayMapper;
+        this.peripheralMapper = peripheralMapper;
+        this.gatewayCountProvider = gatewayCountProvider;
+        this.gatewayResponseCache = gatewayResponseCache;
+        this.capRejections = Counter.builder("gateway.peripheral.cap.rejections")
+                .description("Peripheral creations rejected because the gateway already had " + MAX_PERIPHERALS_PER_GATEWAY + " peripherals")
+                .register(meterRegistry);
     }
 
     public Gateway createGateway(CreateGatewayDTO createGatewayDTO) {
 
-        Gateway gatewayNotSaved = modelMapper.map(createGatewayDTO, Gateway.class);
+        Gateway gatewayNotSaved = gatewayMapper.toEntity(createGatewayDTO);
 
         Gateway gateway = gatewayRepo.save(gatewayNotSaved);
 
+        gatewayCountProvider.onGatewaysCreated(1);
+
         return gateway;
 
     }
 
+    /**
+     * Read only, so served by a replica when replicas are configured
+     * */
+    @Transactional(readOnly = true)
     public Page<Gateway> getGateways(int size, int page) {
 
-        var pageRequest = PageRequest.of(page, size, Sort.by("createdAt"));
+        var pageRequest = PageRequest.of(page, size, GATEWAY_ORDER);
 
         Page<Gateway> gateways = gatewayRepo.findAll(pageRequest);
 
+        attachPeripherals(gateways.getContent());
+
+        return gateways;
+
+    }
+
+    /**
+     * Same page as {@link #getGateways(int, int)}, with the total computed as requested by the count mode.
+     * Only {@link CountMode#EXACT} runs a COUNT query, {@link CountMode#NONE} returns a slice without any total.
+     * */
+    @Transactional(readOnly = true)
+    public Slice<Gateway> getGateways(int size, int page, CountMode countMode) {
+
+        if (countMode == CountMode.EXACT) {
+            return getGateways(size, page);
+        }
+
+        var pageRequest = PageRequest.of(page, size, GATEWAY_ORDER);
+
+        Slice<Gateway> gateways = gatewayRepo.findAllBy(pageRequest);
+
+        attachPeripherals(gateways.getContent());
+
+        if (countMode == CountMode.APPROXIMATE) {
+            return new PageImpl<>(gateways.getContent(), pageRequest, gatewayCountProvider.getApproximateCount());
+        }
+
+        return gateways;
+
+    }
+
+    /**
+     * Keyset variant of {@link #getGateways(int, int)}, seeks past the cursor on (createdAt, id) instead of using an offset
+     * and never counts. One extra row is fetched to tell whether a next page exists.
+     * */
+    @Transactional(readOnly = true)
+    public Slice<Gateway> getGatewaysAfter(int size, String cursor) {
+
+        var pageRequest = PageRequest.of(0, size + 1);
+
+        List<Gateway> gateways;
+
+        if (cursor == null || cursor.isEmpty()) {
+            gateways = gatewayRepo.findAllByOrderByCreatedAtAscIdAsc(pageRequest);
+        } else {
+            GatewayCursor gatewayCursor = GatewayCursor.decode(cursor);
+            gateways = gatewayRepo.findAllAfter(gatewayCursor.getCreatedAt(), gatewayCursor.getId(), pageRequest);
+        }
+
+        boolean hasNext = gateways.size() > size;
+
+        if (hasNext) {
+            gateways = gateways.subList(0, size);
+        }
+
+        attachPeripherals(gateways);
+
+        return new SliceImpl<>(gateways, PageRequest.of(0, size), hasNext);
+
+    }
+
+    /**
+     * Gateways in the subnet given in CIDR notation, ordered by address. Like {@link #getGateways(int, int, CountMode)} with
+     * {@link CountMode#NONE} one extra row is read to tell whether a next slice exists.
+     * */
+    @Transactional(readOnly = true)
+    public Slice<Gateway> getGatewaysInCidr(String cidr, int size, int page) {
+        return getGatewaysInRange(IpV4Range.ofCidr(cidr), size, page);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Gateway> getGatewaysByIpV4Address(String ipV4Address, int size, int page) {
+        return getGatewaysInRange(IpV4Range.ofAddress(ipV4Address), size, page);
+    }
+
+    private Slice<Gateway> getGatewaysInRange(IpV4Range range, int size, int page) {
+
+        var pageRequest = PageRequest.of(page, size);
+
+        List<Gateway> gateways = range.getFirst() == range.getLast()
+                ? gatewayRepo.findAllByIpV4Number(range.getFirst(), size + 1, pageRequest.getOffset())
+                : gatewayRepo.findAllByIpV4NumberBetween(range.getFirst(), range.getLast(), size + 1, pageRequest.getOffset());
+
+        boolean hasNext = gateways.size() > size;
+
+        if (hasNext) {
+            gateways = gateways.subList(0, size);
+        }
+
+        attachPeripherals(gateways);
+
+        return new SliceImpl<>(gateways, pageRequest, hasNext);
+
+    }
+
+    private void attachPeripherals(List<Gateway> gateways) {
+
+        if (gateways.isEmpty()) {
+            return;
+        }
+
         List<String> gatewayIds = gateways.stream()
                 .map(Gateway::getId)
                 .distinct()
@@ -63,14 +212,13 @@ public class GatewayService {
             gateway.setPeripherals(gatewayPeripherals);
         }
 
-        return gateways;
-
     }
 
 
+    @Transactional(readOnly = true)
     public Gateway getGateway(String gatewayId) {
 
-        var gateway = gatewayRepo.findById(gatewayId)
+        var gateway = findGateway(gatewayId)
                 .orElseThrow(() -> new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId));
 
         List<Peripheral> peripherals = peripheralRepo.findByGatewayIdIn(List.of(gatewayId));
@@ -80,39 +228,170 @@ public class GatewayService {
         return gateway;
     }
 
-    public Peripheral createGatewayPeripheral(CreatePeripheralRequestDTO createPeripheralDTO) {
+    /**
+     * Last modification of the gateway including its peripherals, empty when the gateway doesn't exist
+     * */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getGatewayVersion(String gatewayId) {
+
+        if (!UuidBytes.isValid(gatewayId)) {
+            return Optional.empty();
+        }
+
+        return gatewayRepo.findUpdatedAtById(gatewayId);
+    }
+
+    /**
+     * ETag of the listing {@link #getGateways(int, int, CountMode)} returns, from the IDs and modifications of the page's gateways
+     * and the total or next page flag, without reading peripherals. Only worth its queries when the client sent a validator to compare,
+     * otherwise the tag is built from the loaded page with {@link GatewayListingTag#of(Slice, int, int, CountMode)}.
+     * */
+    @Transactional(readOnly = true)
+    public String getGatewaysTag(int size, int page, CountMode countMode) {
+
+        var pageRequest = PageRequest.of(page, size, GATEWAY_ORDER);
+
+        Slice<GatewayVersion> versions = gatewayRepo.findVersionsBy(pageRequest);
+
+        Long total = null;
+
+        if (countMode == CountMode.EXACT) {
+            total = gatewayRepo.count();
+        } else if (countMode == CountMode.APPROXIMATE) {
+            total = gatewayCountProvider.getApproximateCount();
+        }
+
+        GatewayListingTag tag = new GatewayListingTag(size, page, countMode, versions.hasNext(), total);
 
-        log.trace("Thread Name: {}, Thread ID: {}", Thread.currentThread().getName(), Thread.currentThread().getId());
+        for (GatewayVersion version : versions) {
+            tag.add(version.getId(), version.getUpdatedAt());
+        }
+
+        return tag.toETag();
+    }
+
+    /**
+     * Gateway IDs are stored as binary UUIDs, anything that is not a canonical UUID can't exist
+     * */
+    private Optional<Gateway> findGateway(String gatewayId) {
+
+        if (!UuidBytes.isValid(gatewayId)) {
+            return Optional.empty();
+        }
+
+        return gatewayRepo.findById(gatewayId);
+    }
+
+    @Transactional
+    public Peripheral createGatewayPeripheral(CreatePeripheralRequestDTO createPeripheralDTO) {
 
         String gatewayId = createPeripheralDTO.getGatewayId();
 
-        Gateway gateway = gatewayRepo.findById(gatewayId)
-                .orElseThrow(() -> new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId));
+        if (!UuidBytes.isValid(gatewayId)) {
+            throw new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId);
+        }
 
-        List<Peripheral> peripherals = peripheralRepo.findByGatewayIdIn(List.of(gatewayId));
+        int reservedSlots = gatewayRepo.reservePeripheralSlot(gatewayId, MAX_PERIPHERALS_PER_GATEWAY, LocalDateTime.now());
 
-        log.trace("Existing Peripherals Count: {}", peripherals.size());
+        if (reservedSlots == 0) {
 
-        if (peripherals.size() >= 10) {
-            throw new OperationNotAllowedException("You already have 10 peripherals on this gateway.");
+            // only rejected creations pay for telling a missing gateway apart from a full one
+            if (!gatewayRepo.existsById(gatewayId)) {
+                throw new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId);
+            }
+
+            capRejections.increment();
+
+            throw new OperationNotAllowedException(PERIPHERAL_CAP_MESSAGE);
         }
 
-        Peripheral peripheralNotSaved = modelMapper.map(createPeripheralDTO, Peripheral.class);
+        Peripheral peripheralNotSaved = peripheralMapper.toEntity(createPeripheralDTO);
 
         Peripheral peripheral = peripheralRepo.save(peripheralNotSaved);
 
+        gatewayResponseCache.invalidate(List.of(gatewayId));
+
         return peripheral;
 
     }
 
+    @Transactional
     public Peripheral deletePeripheral(Long peripheralId) {
 
         Peripheral peripheral = peripheralRepo.findById(peripheralId)
                 .orElseThrow(() -> new EntityNotFoundException("Peripheral Not Found by ID: " + peripheralId));
 
+        // gateway row first, same lock order as createGatewayPeripheral
+        gatewayRepo.releasePeripheralSlot(peripheral.getGatewayId(), LocalDateTime.now());
+
         peripheralRepo.delete(peripheral);
 
+        gatewayResponseCache.invalidate(List.of(peripheral.getGatewayId()));
+
         return peripheral;
     }
 
+    /**
+     * Sets the status of the listed peripherals, or of every peripheral of a gateway, with set based updates that don't load
+     * the peripherals. Listed IDs, at most {@link UpdatePeripheralStatusRequestDTO#MAX_PERIPHERAL_IDS} of them, are updated
+     * {@link #MAX_PERIPHERAL_IDS_PER_UPDATE} at a time, all in one transaction.
+     *
+     * @return number of peripherals whose status changed
+     * */
+    @Transactional
+    public int updatePeripheralStatus(UpdatePeripheralStatusRequestDTO updateStatusDTO) {
+
+        List<Long> peripheralIds = updateStatusDTO.getPeripheralIds();
+        String gatewayId = updateStatusDTO.getGatewayId();
+        PeripheralStatus status = updateStatusDTO.getStatus();
+
+        boolean byPeripheralIds = peripheralIds != null && !peripheralIds.isEmpty();
+        boolean byGatewayId = gatewayId != null;
+
+        if (byPeripheralIds == byGatewayId) {
+            throw new InvalidRequestParameterException("Either peripheralIds or gatewayId is required, not both.");
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        if (byGatewayId) {
+
+            if (!UuidBytes.isValid(gatewayId) || !gatewayRepo.existsById(gatewayId)) {
+                throw new EntityNotFoundException("Gateway Not Found by ID: " + gatewayId);
+            }
+
+            // gateway row first, same lock order as createGatewayPeripheral
+            if (peripheralRepo.existsToUpdateByGatewayId(gatewayId, status)) {
+                gatewayRepo.touch(List.of(gatewayId), updatedAt);
+                gatewayResponseCache.invalidate(List.of(gatewayId));
+            }
+
+            return peripheralRepo.updateStatusByGatewayId(gatewayId, status, updatedAt);
+        }
+
+        List<Long> distinctPeripheralIds = peripheralIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        int updated = 0;
+
+        for (int from = 0; from < distinctPeripheralIds.size(); from += MAX_PERIPHERAL_IDS_PER_UPDATE) {
+
+            List<Long> chunk = distinctPeripheralIds.subList(from, Math.min(from + MAX_PERIPHERAL_IDS_PER_UPDATE, distinctPeripheralIds.size()));
+
+            List<String> changedGatewayIds = peripheralRepo.findGatewayIdsToUpdateByIdIn(chunk, status);
+
+            if (!changedGatewayIds.isEmpty()) {
+                gatewayRepo.touch(changedGatewayIds, updatedAt);
+                gatewayResponseCache.invalidate(changedGatewayIds);
+            }
+
+            updated += peripheralRepo.updateStatusByIdIn(chunk, status, updatedAt);
+        }
+
+        return updated;
+
+    }
+
 }
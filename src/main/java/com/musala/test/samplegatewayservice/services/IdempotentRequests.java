@@ -0,0 +1,117 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Responses of create requests by their client and Idempotency-Key, so a client retrying after a timeout gets the original response
+ * instead of creating a duplicate. Clients are told apart by {@link RequestClients}, the same key sent by two clients names two requests. Bounded by size and by time since the request completed, kept in memory of this instance only.
+ * Concurrent requests with the same key share one execution and wait on its future, like readers of {@link GatewayResponseCache}.
+ * */
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final String clientHeader;
+
+    private final AsyncCache<Key, Outcome> cache;
+
+    public IdempotentRequests(@Value("${gateway.idempotency.client-header:X-Client-Id}") String clientHeader,
+                              @Value("${gateway.idempotency.maximum-size:100000}") long maximumSize,
+                              @Value("${gateway.idempotency.expire-after-write:PT1H}") Duration expireAfterWrite) {
+        this.clientHeader = clientHeader;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .buildAsync();
+    }
+
+    /**
+     * Runs the execution once per operation, client and key, repeated and concurrent requests with the key get the same response
+     * without running it again. Runs it every time without a key.
+     * Nothing is kept when the execution throws, so the request can be retried with the same key.
+     *
+     * @param request compared with the request the key was first used with, reusing a key for a different request is rejected
+     * */
+    public <T> T execute(String operation, String key, Object request, Supplier<T> execution) {
+
+        if (key == null) {
+            return execution.get();
+        }
+
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestParameterException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters long");
+        }
+
+        CompletableFuture<Outcome> run = new CompletableFuture<>();
+
+        CompletableFuture<Outcome> stored = cache.get(new Key(operation, RequestClients.current(clientHeader), key), (operationKey, executor) -> run);
+
+        if (stored == run) {
+            try {
+                run.complete(new Outcome(request, execution.get()));
+            } catch (RuntimeException | Error e) {
+                // a failed future is removed from the cache
+                run.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        Outcome outcome;
+
+        try {
+            outcome = stored.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        if (!outcome.getRequest().equals(request)) {
+            throw new InvalidRequestParameterException(HEADER + " " + key + " was already used for a different request");
+        }
+
+        @SuppressWarnings("unchecked")
+        T response = (T) outcome.getResponse();
+
+        return response;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+
+        private final String operation;
+
+        private final String client;
+
+        private final String key;
+
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Outcome {
+
+        private final Object request;
+
+        private final Object response;
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
+import com.musala.test.samplegatewayservice.models.types.IpV4Addresses;
+import lombok.Value;
+
+/**
+ * Inclusive range of IPv4 addresses as the unsigned numbers stored in gateways.ip_v4_number
+ * */
+@Value
+public class IpV4Range {
+
+    private static final char PREFIX_SEPARATOR = '/';
+
+    private static final int MAX_PREFIX_LENGTH = 32;
+
+    long first;
+
+    long last;
+
+    public static IpV4Range ofAddress(String address) {
+
+        long number = parseAddress(address, address);
+
+        return new IpV4Range(number, number);
+    }
+
+    /**
+     * Subnet in a.b.c.d/n notation, host bits set in the address are ignored so 10.20.1.7/16 is 10.20.0.0/16
+     * */
+    public static IpV4Range ofCidr(String cidr) {
+
+        int separatorIndex = cidr.indexOf(PREFIX_SEPARATOR);
+
+        if (separatorIndex < 0) {
+            throw new InvalidRequestParameterException("Invalid CIDR: " + cidr);
+        }
+
+        long address = parseAddress(cidr.substring(0, separatorIndex), cidr);
+
+        int prefixLength;
+
+        try {
+            prefixLength = Integer.parseInt(cidr.substring(separatorIndex + 1));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestParameterException("Invalid CIDR: " + cidr, e);
+        }
+
+        if (prefixLength < 0 || prefixLength > MAX_PREFIX_LENGTH) {
+            throw new InvalidRequestParameterException("Invalid CIDR: " + cidr);
+        }
+
+        long hostMask = (1L << (MAX_PREFIX_LENGTH - prefixLength)) - 1;
+
+        long first = address & ~hostMask;
+
+        return new IpV4Range(first, first | hostMask);
+    }
+
+    private static long parseAddress(String address, String value) {
+
+        if (!IpV4Addresses.isValid(address)) {
+            throw new InvalidRequestParameterException("Invalid IPv4 address: " + value);
+        }
+
+        return Integer.toUnsignedLong(IpV4Addresses.parse(address));
+    }
+
+}
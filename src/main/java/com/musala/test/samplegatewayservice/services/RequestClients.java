@@ -0,0 +1,36 @@
+package com.musala.test.samplegatewayservice.services;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Tells the clients of the current request apart by a request header they send, or by their remote address when the header is missing.
+ * Work outside of a request, like scheduled jobs, has no client.
+ * */
+public final class RequestClients {
+
+    private RequestClients() {
+    }
+
+    /**
+     * @return the client of the request bound to the current thread, null outside of a request
+     * */
+    public static String current(String clientHeader) {
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+
+        String client = request.getHeader(clientHeader);
+
+        return client == null || client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+
+}
@@ -1,19 +1,17 @@
 package com.musala.test.samplegatewayservice.validation.validators;
 
+import com.musala.test.samplegatewayservice.models.types.IpV4Addresses;
 import com.musala.test.samplegatewayservice.validation.annotations.IpV4Address;
-import org.apache.commons.validator.routines.InetAddressValidator;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 public class IpV4AddressValidator implements ConstraintValidator<IpV4Address, String> {
 
-    private static final InetAddressValidator validator = InetAddressValidator.getInstance();
-
     @Override
     public boolean isValid(String ipV4Address, ConstraintValidatorContext constraintValidatorContext) {
 
-        return validator.isValid(ipV4Address);
+        return IpV4Addresses.isValid(ipV4Address);
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1 @@
+CREATE INDEX idx__gateways__created_at_id ON gateways (created_at, id);
@@ -0,0 +1,5 @@
+ALTER TABLE gateways
+    ADD COLUMN peripheral_count int NOT NULL DEFAULT 0;
+
+UPDATE gateways g
+SET g.peripheral_count = (SELECT COUNT(*) FROM peripherals p WHERE p.gateway_id = g.id);
@@ -0,0 +1,37 @@
+-- gateway keys move from varchar(255) canonical UUIDs to BINARY(16), the API keeps using the canonical form
+
+ALTER TABLE peripherals
+    DROP FOREIGN KEY fk__peripheral__gateways_id;
+
+DROP INDEX idx__gateways__created_at_id ON gateways;
+
+ALTER TABLE gateways
+    ADD COLUMN id_bin binary(16) AFTER id;
+
+UPDATE gateways
+SET id_bin = UNHEX(REPLACE(id, '-', ''));
+
+ALTER TABLE gateways
+    DROP PRIMARY KEY,
+    DROP COLUMN id;
+
+ALTER TABLE gateways
+    CHANGE COLUMN id_bin id binary(16) NOT NULL FIRST,
+    ADD PRIMARY KEY (id);
+
+ALTER TABLE peripherals
+    ADD COLUMN gateway_id_bin binary(16) AFTER gateway_id;
+
+UPDATE peripherals
+SET gateway_id_bin = UNHEX(REPLACE(gateway_id, '-', ''));
+
+ALTER TABLE peripherals
+    DROP COLUMN gateway_id;
+
+ALTER TABLE peripherals
+    CHANGE COLUMN gateway_id_bin gateway_id binary(16) NOT NULL;
+
+CREATE INDEX idx__gateways__created_at_id ON gateways (created_at, id);
+
+ALTER TABLE peripherals
+    ADD CONSTRAINT fk__peripheral__gateways_id FOREIGN KEY (gateway_id) REFERENCES gateways (id);
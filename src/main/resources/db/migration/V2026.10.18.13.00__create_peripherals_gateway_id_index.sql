@@ -0,0 +1,3 @@
+-- peripherals are always looked up by their gateway, the implicit index InnoDB created for the foreign key is replaced by
+-- a named one so the query plan regression tests can rely on it
+CREATE INDEX idx__peripherals__gateway_id ON peripherals (gateway_id);
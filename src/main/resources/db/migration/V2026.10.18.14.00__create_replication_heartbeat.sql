@@ -0,0 +1,11 @@
+-- single row touched on the primary at a fixed interval, how old the row is on a replica is how far that replica lags behind
+CREATE TABLE replication_heartbeat
+(
+    id      tinyint     NOT NULL,
+    beat_at datetime(6) NOT NULL,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB;
+
+INSERT INTO replication_heartbeat
+VALUES (1, UTC_TIMESTAMP(6));
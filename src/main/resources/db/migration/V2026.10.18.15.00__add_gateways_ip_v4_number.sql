@@ -0,0 +1,6 @@
+-- the address as an unsigned 32 bit number, so subnets and exact addresses are index range scans instead of string matches.
+-- Computed by the database from the validated dotted quad, existing rows are filled in when the column is added
+ALTER TABLE gateways
+    ADD COLUMN ip_v4_number int unsigned GENERATED ALWAYS AS (INET_ATON(ip_v4_address)) STORED;
+
+CREATE INDEX idx__gateways__ip_v4_number ON gateways (ip_v4_number);
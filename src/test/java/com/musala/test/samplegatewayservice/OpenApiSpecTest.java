@@ -0,0 +1,87 @@
+package com.musala.test.samplegatewayservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keeps the static OpenAPI spec, served at /openapi.json by instances that do not generate it like the fast-startup ones,
+ * equal to the one springfox generates. After an API change, rewrite it with -Dopenapi.update-spec=true and commit it.
+ * */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OpenApiSpecTest {
+
+    private static final Path SPEC = Path.of("src", "main", "resources", "static", "openapi.json");
+
+    private static final boolean UPDATE_SPEC = Boolean.getBoolean("openapi.update-spec");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Given generated api docs, When compare with static spec, Returns equal specs")
+    void givenGeneratedApiDocs_WhenCompareWithStaticSpec_ReturnsEqualSpecs() throws Exception {
+
+        String generated = mockMvc
+                .perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        ObjectNode spec = (ObjectNode) objectMapper.readTree(generated);
+        // the servers are the host of the request, clients resolve the spec's relative paths against where they fetched it from
+        spec.remove("servers");
+
+        if (UPDATE_SPEC) {
+            Files.createDirectories(SPEC.getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(SPEC.toFile(), spec);
+        }
+
+        JsonNode stored = objectMapper.readTree(SPEC.toFile());
+
+        assertThat(stored)
+                .as("%s is outdated, rewrite it with -Dopenapi.update-spec=true", SPEC)
+                .isEqualTo(spec);
+
+    }
+
+    @Test
+    @DisplayName("Given static spec, When get openapi.json, Returns the spec")
+    void givenStaticSpec_WhenGetOpenApiJson_ReturnsSpec() throws Exception {
+
+        String served = mockMvc
+                .perform(get("/openapi.json"))
+                .andExpect(status().isOk())
+                // the static resource is sent without a charset
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(objectMapper.readTree(served)).isEqualTo(objectMapper.readTree(SPEC.toFile()));
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.musala.test.samplegatewayservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.services.GatewayService;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives a peripheral creation past the cap through the API and checks the scrape carries every metric family the service promises
+ * */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class PrometheusEndpointTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Given peripheral creations past the cap, When scrape prometheus endpoint, Returns endpoint, repository, Hibernate, pool and cap rejection metrics")
+    void givenPeripheralCreationsPastTheCap_WhenScrapePrometheusEndpoint_ReturnsEndpointRepositoryHibernatePoolAndCapRejectionMetrics() throws Exception {
+
+        String gatewayJson = mockMvc
+                .perform(post("/gateway")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateGatewayDTO("Metrics Gateway", "10.30.0.1"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        CreatePeripheralRequestDTO peripheral = new CreatePeripheralRequestDTO();
+        peripheral.setGatewayId(objectMapper.readTree(gatewayJson).get("id").asText());
+        peripheral.setName("P");
+        peripheral.setVendor("Vendor");
+        peripheral.setStatus("ONLINE");
+
+        for (int i = 0; i < GatewayService.MAX_PERIPHERALS_PER_GATEWAY; i++) {
+            mockMvc.perform(post("/gateway/peripheral")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(peripheral)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(post("/gateway/peripheral")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(peripheral)))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mockMvc
+                .perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/gateway/peripheral\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("repository=\"GatewayRepo\"")
+                .contains("method=\"reservePeripheralSlot\"")
+                .contains("repository=\"PeripheralRepo\"")
+                .contains("hibernate_statements_total{")
+                .contains("hibernate_entities_loads_total{")
+                .contains("hibernate_flushes_total{")
+                .contains("hikaricp_connections_active{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("hikaricp_connections_usage_seconds_bucket{")
+                .containsPattern("gateway_peripheral_cap_rejections_total\\{[^}]*} [1-9]");
+
+    }
+
+}
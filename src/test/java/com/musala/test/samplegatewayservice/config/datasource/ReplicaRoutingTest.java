@@ -0,0 +1,173 @@
+package com.musala.test.samplegatewayservice.config.datasource;
+
+import com.musala.test.samplegatewayservice.dtos.datasource.DataSourceStatsDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.ids.TimeOrderedUuidGenerator;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import com.musala.test.samplegatewayservice.services.EntityNotFoundException;
+import com.musala.test.samplegatewayservice.services.GatewayReadService;
+import com.musala.test.samplegatewayservice.services.GatewayService;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against two independent local databases, a gateway that only exists in the replica shows which one served a read
+ * */
+@SpringBootTest(properties = {
+        "gateway.datasource.replica.max-lag=PT1M",
+        "gateway.datasource.replica.heartbeat-interval=PT1H",
+        "gateway.datasource.replica.sticky-window=PT1M"
+})
+class ReplicaRoutingTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+        LocalDatabase.registerReplicaProperties(registry);
+    }
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    @Autowired
+    private GatewayReadService gatewayReadService;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void replicaInSync() {
+
+        primary = new JdbcTemplate(replicaRoutingDataSource.getPrimary());
+        // the application's replica pool is read only, changes that would arrive through replication are written directly
+        replica = new JdbcTemplate(new DriverManagerDataSource(LocalDatabase.replicaJdbcUrl(), "root", ""));
+
+        replica.update("UPDATE replication_heartbeat SET beat_at = UTC_TIMESTAMP(6) WHERE id = 1");
+        replicaLagMonitor.check();
+
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Given gateway only in replica, When read in read only transactions, Returns it from the replica")
+    void givenGatewayOnlyInReplica_WhenReadInReadOnlyTransactions_ReturnsItFromReplica() {
+
+        String id = insertIntoReplica("Replica Only 1");
+
+        assertThat(gatewayReadService.getGateway(id).getName()).isEqualTo("Replica Only 1");
+        assertThat(gatewayService.getGateway(id).getName()).isEqualTo("Replica Only 1");
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM gateways WHERE id = ?", Long.class, (Object) UuidBytes.toBytes(id)))
+                .isZero();
+
+    }
+
+    @Test
+    @DisplayName("Given replica lagging over the limit, When read, Falls back to primary until replica catches up")
+    void givenReplicaLaggingOverLimit_WhenRead_FallsBackToPrimaryUntilReplicaCatchesUp() {
+
+        String id = insertIntoReplica("Replica Only 2");
+
+        replica.update("UPDATE replication_heartbeat SET beat_at = UTC_TIMESTAMP(6) - INTERVAL 1 HOUR WHERE id = 1");
+        replicaLagMonitor.check();
+
+        long lagFallbacks = replicaRoutingDataSource.getLagFallbacks();
+
+        assertThatThrownBy(() -> gatewayReadService.getGateway(id)).isInstanceOf(EntityNotFoundException.class);
+        assertThat(replicaRoutingDataSource.getLagFallbacks()).isGreaterThan(lagFallbacks);
+        assertThat(replicaRoutingDataSource.getStats().get(1).isInSync()).isFalse();
+
+        replicaInSync();
+
+        assertThat(gatewayReadService.getGateway(id).getName()).isEqualTo("Replica Only 2");
+
+    }
+
+    @Test
+    @DisplayName("Given client that just wrote, When it reads, Reads from primary, Other clients keep reading from replica")
+    void givenClientThatJustWrote_WhenItReads_ReadsFromPrimary_OtherClientsReadFromReplica() {
+
+        actAsClient("writer");
+
+        Gateway gateway = gatewayService.createGateway(new CreateGatewayDTO("Primary Only", "10.6.0.1"));
+
+        assertThat(gatewayReadService.getGateway(gateway.getId()).getName()).isEqualTo("Primary Only");
+
+        actAsClient("reader");
+
+        assertThatThrownBy(() -> gatewayReadService.getGateway(gateway.getId())).isInstanceOf(EntityNotFoundException.class);
+
+    }
+
+    @Test
+    @DisplayName("Given reads and writes, When get stats, Returns pool and routing stats per datasource")
+    void givenReadsAndWrites_WhenGetStats_ReturnsPoolAndRoutingStatsPerDatasource() {
+
+        gatewayReadService.getGateway(insertIntoReplica("Replica Only 3"));
+        gatewayService.createGateway(new CreateGatewayDTO("Stats", "10.6.0.2"));
+
+        List<DataSourceStatsDTO> stats = replicaRoutingDataSource.getStats();
+
+        assertThat(stats).extracting(DataSourceStatsDTO::getName).containsExactly("gateway-primary", "gateway-replica-0");
+        assertThat(stats).extracting(DataSourceStatsDTO::getRole).containsExactly("PRIMARY", "REPLICA");
+        assertThat(stats).allSatisfy(dataSource -> {
+            assertThat(dataSource.getRoutedConnections()).isPositive();
+            assertThat(dataSource.getTotalConnections()).isPositive();
+        });
+        assertThat(stats.get(1).isInSync()).isTrue();
+        assertThat(stats.get(1).getLagMillis()).isBetween(0L, 60_000L);
+
+    }
+
+    private String insertIntoReplica(String name) {
+
+        String id = TimeOrderedUuidGenerator.nextUuid().toString();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        replica.update("INSERT INTO gateways (id, created_at, updated_at, name, ip_v4_address, peripheral_count) VALUES (?, ?, ?, ?, ?, 0)",
+                UuidBytes.toBytes(id), now, now, name, "10.6.1.1");
+
+        return id;
+    }
+
+    private static void actAsClient(String client) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Client-Id", client);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.musala.test.samplegatewayservice.config.idgen;
+
+import com.musala.test.samplegatewayservice.models.ids.PeripheralIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeripheralIdGenerationConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PeripheralIdGenerationConfig.class);
+
+    @Test
+    @DisplayName("Given snowflake strategy without node id, When start, Fails naming the node id property")
+    void givenSnowflakeStrategyWithoutNodeId_WhenStart_FailsNamingNodeIdProperty() {
+
+        contextRunner
+                .withPropertyValues("gateway.peripheral.id.strategy=snowflake")
+                .run(context -> assertThat(context)
+                        .hasFailed()
+                        .getFailure()
+                        .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                        .hasStackTraceContaining("gateway.peripheral.id.node-id is required by the snowflake strategy"));
+
+    }
+
+    @Test
+    @DisplayName("Given snowflake strategy with node id, When start, Hands node id to Hibernate")
+    void givenSnowflakeStrategyWithNodeId_WhenStart_HandsNodeIdToHibernate() {
+
+        contextRunner
+                .withPropertyValues("gateway.peripheral.id.strategy=snowflake", "gateway.peripheral.id.node-id=7")
+                .run(context -> assertThat(hibernateProperties(context.getBean(HibernatePropertiesCustomizer.class)))
+                        .containsEntry(PeripheralIdGenerator.NODE_ID_SETTING, "7"));
+
+    }
+
+    @Test
+    @DisplayName("Given sequence strategy without node id, When start, Hands no node id to Hibernate")
+    void givenSequenceStrategyWithoutNodeId_WhenStart_HandsNoNodeIdToHibernate() {
+
+        contextRunner
+                .withPropertyValues("gateway.peripheral.id.strategy=sequence")
+                .run(context -> assertThat(hibernateProperties(context.getBean(HibernatePropertiesCustomizer.class)))
+                        .containsEntry(PeripheralIdGenerator.STRATEGY_SETTING, "sequence")
+                        .doesNotContainKey(PeripheralIdGenerator.NODE_ID_SETTING));
+
+    }
+
+    private static Map<String, Object> hibernateProperties(HibernatePropertiesCustomizer customizer) {
+
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        customizer.customize(hibernateProperties);
+
+        return hibernateProperties;
+    }
+
+}
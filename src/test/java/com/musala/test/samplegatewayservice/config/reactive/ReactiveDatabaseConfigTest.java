@@ -0,0 +1,51 @@
+package com.musala.test.samplegatewayservice.config.reactive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveDatabaseConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ReactiveDatabaseConfig.class)
+            // converts the pool's Duration properties like the application does
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(DataSourceProperties.class, () -> {
+                DataSourceProperties dataSourceProperties = new DataSourceProperties();
+                dataSourceProperties.setUrl("jdbc:postgresql://localhost:5432/gateway_service");
+                dataSourceProperties.setUsername("gateway_service");
+                return dataSourceProperties;
+            });
+
+    @Test
+    @DisplayName("Given non MySQL datasource and reactive reads disabled, When start, Starts without a reactive database client")
+    void givenNonMySqlDatasourceAndReactiveReadsDisabled_WhenStart_StartsWithoutReactiveDatabaseClient() {
+
+        contextRunner
+                .withPropertyValues("gateway.reactive.enabled=false")
+                .run(context -> assertThat(context)
+                        .hasNotFailed()
+                        .doesNotHaveBean(DatabaseClient.class));
+
+    }
+
+    @Test
+    @DisplayName("Given non MySQL datasource and reactive reads enabled, When start, Fails naming the switch")
+    void givenNonMySqlDatasourceAndReactiveReadsEnabled_WhenStart_FailsNamingTheSwitch() {
+
+        contextRunner
+                .withPropertyValues("gateway.reactive.enabled=true")
+                .run(context -> assertThat(context)
+                        .hasFailed()
+                        .getFailure()
+                        .hasRootCauseInstanceOf(IllegalStateException.class)
+                        .hasStackTraceContaining("gateway.reactive.enabled=false"));
+
+    }
+
+}
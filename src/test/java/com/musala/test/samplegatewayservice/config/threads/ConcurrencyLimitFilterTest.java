@@ -0,0 +1,70 @@
+package com.musala.test.samplegatewayservice.config.threads;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter concurrencyLimitFilter =
+            new ConcurrencyLimitFilter(1, Duration.ofMillis(10), new ObjectMapper());
+
+    @Test
+    @DisplayName("Given free permit, When filter request, Passes request on, Frees permit afterwards")
+    void givenFreePermit_WhenFilterRequest_PassesRequestOn_FreesPermitAfterwards() throws Exception {
+
+        for (int i = 0; i < 2; i++) {
+
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain filterChain = new MockFilterChain();
+
+            concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/gateway"), response, filterChain);
+
+            assertThat(filterChain.getRequest()).isNotNull();
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+    }
+
+    @Test
+    @DisplayName("Given all permits taken, When filter request, Rejects request with service unavailable status")
+    void givenAllPermitsTaken_WhenFilterRequest_RejectsRequestWithServiceUnavailableStatus() throws Exception {
+
+        AtomicReference<MockHttpServletResponse> rejectedResponse = new AtomicReference<>();
+
+        // the first request holds the only permit while the second one arrives
+        HttpServlet holdingServlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+                    concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/gateway"), secondResponse, new MockFilterChain());
+                    rejectedResponse.set(secondResponse);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/gateway"), firstResponse, new MockFilterChain(holdingServlet));
+
+        assertThat(firstResponse.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(rejectedResponse.get().getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(rejectedResponse.get().getContentAsString()).contains("Service Unavailable");
+
+    }
+
+}
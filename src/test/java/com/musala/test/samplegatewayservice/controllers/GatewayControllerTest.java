@@ -1,15 +1,27 @@
 package com.musala.test.samplegatewayservice.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.musala.test.samplegatewayservice.config.modelmapper.ModelMapperConfig;
+import com.musala.test.samplegatewayservice.dtos.error.ErrorDetails;
 import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayImportResultDTO;
 import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusRequestDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapperImpl;
+import com.musala.test.samplegatewayservice.mappers.PeripheralMapperImpl;
 import com.musala.test.samplegatewayservice.models.Gateway;
 import com.musala.test.samplegatewayservice.models.Peripheral;
 import com.musala.test.samplegatewayservice.models.PeripheralStatus;
 import com.musala.test.samplegatewayservice.repo.GatewayRepo;
+import com.musala.test.samplegatewayservice.services.CountMode;
 import com.musala.test.samplegatewayservice.services.EntityNotFoundException;
+import com.musala.test.samplegatewayservice.services.EntityTags;
+import com.musala.test.samplegatewayservice.services.GatewayCursor;
+import com.musala.test.samplegatewayservice.services.GatewayExportService;
+import com.musala.test.samplegatewayservice.services.GatewayImportService;
+import com.musala.test.samplegatewayservice.services.GatewayListingTag;
+import com.musala.test.samplegatewayservice.services.GatewayResponseCache;
 import com.musala.test.samplegatewayservice.services.GatewayService;
+import com.musala.test.samplegatewayservice.services.IdempotentRequests;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -21,43 +33,68 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = GatewayController.class)
 @AutoConfigureMockMvc
-@Import({ModelMapperConfig.class})
+@Import({GatewayMapperImpl.class, PeripheralMapperImpl.class, GatewayResponseCache.class, IdempotentRequests.class})
 class GatewayControllerTest {
 
     @MockBean
     private GatewayService gatewayService;
 
+    @MockBean
+    private GatewayImportService gatewayImportService;
+
+    @MockBean
+    private GatewayExportService gatewayExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -134,6 +171,33 @@ class GatewayControllerTest {
             verify(gatewayService, times(0)).createGateway(gatewayCaptor.capture());
         }
 
+        @Test
+        @DisplayName("Given repeated idempotency key, When add gateway, Creates gateway once, Returns original response")
+        void givenRepeatedIdempotencyKey_WhenAddGateway_CreatesGatewayOnce_ReturnsOriginalResponse() throws Exception {
+
+            String idempotencyKey = UUID.randomUUID().toString();
+            String id = UUID.randomUUID().toString();
+
+            when(gatewayService.createGateway(any()))
+                    .thenReturn(new Gateway(id, "Retried", "192.168.0.2", null))
+                    .thenReturn(new Gateway(UUID.randomUUID().toString(), "Retried", "192.168.0.2", null));
+
+            String requestBody = objectMapper.writeValueAsString(new CreateGatewayDTO("Retried", "192.168.0.2"));
+
+            for (int i = 0; i < 2; i++) {
+                mockMvc
+                        .perform(post("/gateway/")
+                                .header(IdempotentRequests.HEADER, idempotencyKey)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(requestBody))
+                        .andDo(print())
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.id", is(id)));
+            }
+
+            verify(gatewayService, times(1)).createGateway(any());
+        }
+
     }
 
     @Nested
@@ -157,7 +221,7 @@ class GatewayControllerTest {
 
             Gateway gateway2 = new Gateway(id2, validName2, ipV4Address2, null);
 
-            when(gatewayService.getGateways(anyInt(), anyInt()))
+            when(gatewayService.getGateways(anyInt(), anyInt(), eq(CountMode.EXACT)))
                     .thenReturn(new PageImpl<>(List.of(gateway1, gateway2)));
 
             MvcResult mvcResult = mockMvc
@@ -170,14 +234,14 @@ class GatewayControllerTest {
                     .andReturn();
 
             verify(gatewayService, times(1))
-                    .getGateways(anyInt(), anyInt());
+                    .getGateways(anyInt(), anyInt(), eq(CountMode.EXACT));
         }
 
         @Test
         @DisplayName("Given valid request, When get gateways, Returns OK status, Returns empty list of Gateways when None Exists")
         void givenValidRequest_whenGetGateways_returnsOkStatus_returnsEmptyListOfGatewaysWhenNoneExists() throws Exception {
 
-            when(gatewayService.getGateways(anyInt(), anyInt()))
+            when(gatewayService.getGateways(anyInt(), anyInt(), eq(CountMode.EXACT)))
                     .thenReturn(new PageImpl<>(new ArrayList<>()));
 
             MvcResult mvcResult = mockMvc
@@ -190,7 +254,294 @@ class GatewayControllerTest {
                     .andReturn();
 
             verify(gatewayService, times(1))
-                    .getGateways(anyInt(), anyInt());
+                    .getGateways(anyInt(), anyInt(), eq(CountMode.EXACT));
+        }
+
+        @Test
+        @DisplayName("Given count none, When get gateways, Returns OK status, Returns Slice of Gateways without totals")
+        void givenCountNone_whenGetGateways_returnsOkStatus_returnsSliceOfGatewaysWithoutTotals() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+
+            when(gatewayService.getGateways(anyInt(), anyInt(), eq(CountMode.NONE)))
+                    .thenReturn(new SliceImpl<>(List.of(gateway1), PageRequest.of(0, 50), true));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?size=50&page=0&count=none")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.last", is(false)))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn();
+
+            verify(gatewayService, times(1))
+                    .getGateways(50, 0, CountMode.NONE);
+        }
+
+        @Test
+        @DisplayName("Given If-None-Match of current listing, When get gateways, Returns Not Modified, Does not load Gateways")
+        void givenIfNoneMatchOfCurrentListing_WhenGetGateways_ReturnsNotModified_DoesNotLoadGateways() throws Exception {
+
+            String listingTag = "\"5d41402abc4b2a76b9719d911017c592\"";
+
+            when(gatewayService.getGatewaysTag(50, 0, CountMode.EXACT))
+                    .thenReturn(listingTag);
+
+            mockMvc
+                    .perform(get("/gateway/?size=50&page=0")
+                            .header(HttpHeaders.IF_NONE_MATCH, listingTag))
+                    .andDo(print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(gatewayService, times(0))
+                    .getGateways(anyInt(), anyInt(), any());
+
+        }
+
+        @Test
+        @DisplayName("Given no validators, When get gateways, Returns OK status, Returns ETag of the loaded page without reading the listing tag")
+        void givenNoValidators_WhenGetGateways_ReturnsOkStatus_ReturnsETagOfLoadedPageWithoutReadingListingTag() throws Exception {
+
+            Gateway gateway1 = new Gateway(UUID.randomUUID().toString(), "Valid Name 1", "192.168.0.1", null);
+            gateway1.setUpdatedAt(LocalDateTime.of(2026, 10, 18, 14, 0, 0, 123_456_000));
+
+            SliceImpl<Gateway> gateways = new SliceImpl<>(List.of(gateway1), PageRequest.of(0, 50), false);
+
+            when(gatewayService.getGateways(50, 0, CountMode.NONE))
+                    .thenReturn(gateways);
+
+            mockMvc
+                    .perform(get("/gateway/?size=50&page=0&count=none"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, GatewayListingTag.of(gateways, 50, 0, CountMode.NONE)))
+                    .andExpect(jsonPath("$.content", hasSize(1)));
+
+            verify(gatewayService, times(0))
+                    .getGatewaysTag(anyInt(), anyInt(), any());
+
+        }
+
+        @Test
+        @DisplayName("Given unknown count mode, When get gateways, Returns Bad Request status")
+        void givenUnknownCountMode_whenGetGateways_returnsBadRequestStatus() throws Exception {
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?size=50&page=0&count=sometimes")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bad Request")))
+                    .andReturn();
+
+            verify(gatewayService, times(0))
+                    .getGateways(anyInt(), anyInt(), any());
+        }
+
+        @Test
+        @DisplayName("Given page size out of bounds, When get gateways by any listing, Returns Bad Request status, Loads nothing")
+        void givenPageSizeOutOfBounds_whenGetGatewaysByAnyListing_returnsBadRequestStatus_loadsNothing() throws Exception {
+
+            List<String> queries = new ArrayList<>();
+
+            for (String size : List.of("0", "-1", String.valueOf(PageParameters.MAX_PAGE_SIZE + 1), String.valueOf(Integer.MAX_VALUE))) {
+                queries.add("/gateway/?size=" + size + "&page=0");
+                queries.add("/gateway/?size=" + size + "&cursor=");
+                queries.add("/gateway/?size=" + size + "&page=0&cidr=10.20.0.0/16");
+                queries.add("/gateway/?size=" + size + "&page=0&ip=10.20.1.7");
+            }
+
+            queries.add("/gateway/?size=10&page=-1");
+
+            for (String query : queries) {
+                mockMvc
+                        .perform(get(query)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message", is("Bad Request")));
+            }
+
+            verifyNoInteractions(gatewayService);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("GetGatewaysByCursor")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewaysByCursorTests {
+
+        @Test
+        @DisplayName("Given empty cursor, When get gateways by cursor, Returns OK status, Returns first page with next cursor of last Gateway")
+        void givenEmptyCursor_whenGetGatewaysByCursor_returnsOkStatus_returnsFirstPageWithNextCursor() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+            gateway1.setCreatedAt(LocalDateTime.of(2021, 7, 12, 11, 0));
+
+            String id2 = UUID.randomUUID().toString();
+            Gateway gateway2 = new Gateway(id2, "Valid Name 2", "192.168.0.2", null);
+            gateway2.setCreatedAt(LocalDateTime.of(2021, 7, 12, 11, 1));
+
+            when(gatewayService.getGatewaysAfter(anyInt(), eq("")))
+                    .thenReturn(new SliceImpl<>(List.of(gateway1, gateway2), PageRequest.of(0, 2), true));
+
+            String expectedCursor = GatewayCursor.of(gateway2).encode();
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?size=2&cursor=")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)))
+                    .andExpect(jsonPath("$.content[1].id", is(id2)))
+                    .andExpect(jsonPath("$.nextCursor", is(expectedCursor)))
+                    .andReturn();
+
+            verify(gatewayService, times(1))
+                    .getGatewaysAfter(2, "");
+            verify(gatewayService, times(0))
+                    .getGateways(anyInt(), anyInt(), any());
+        }
+
+        @Test
+        @DisplayName("Given cursor of last page, When get gateways by cursor, Returns OK status, Returns no next cursor")
+        void givenCursorOfLastPage_whenGetGatewaysByCursor_returnsOkStatus_returnsNoNextCursor() throws Exception {
+
+            String cursor = new GatewayCursor(LocalDateTime.of(2021, 7, 12, 11, 0), UUID.randomUUID().toString()).encode();
+
+            when(gatewayService.getGatewaysAfter(anyInt(), anyString()))
+                    .thenReturn(new SliceImpl<>(new ArrayList<>(), PageRequest.of(0, 50), false));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?size=50&cursor={cursor}", cursor)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(0)))
+                    .andExpect(jsonPath("$.nextCursor", nullValue()))
+                    .andReturn();
+
+            verify(gatewayService, times(1))
+                    .getGatewaysAfter(50, cursor);
+        }
+
+        @Test
+        @DisplayName("Given malformed cursor, When get gateways by cursor, Returns Bad Request status")
+        void givenMalformedCursor_whenGetGatewaysByCursor_returnsBadRequestStatus() throws Exception {
+
+            String message = "Invalid cursor: not-a-cursor";
+
+            when(gatewayService.getGatewaysAfter(anyInt(), anyString()))
+                    .thenThrow(new InvalidRequestParameterException(message));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?size=50&cursor=not-a-cursor")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bad Request")))
+                    .andExpect(jsonPath("$.errors[0].message", is(message)))
+                    .andReturn();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("GetGatewaysByIpV4Address")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewaysByIpV4AddressTests {
+
+        @Test
+        @DisplayName("Given CIDR, When get gateways, Returns OK status, Returns Slice of Gateways in the subnet")
+        void givenCidr_whenGetGateways_returnsOkStatus_returnsSliceOfGatewaysInSubnet() throws Exception {
+
+            String id = UUID.randomUUID().toString();
+            Gateway gateway = new Gateway(id, "Valid Name", "10.20.1.7", null);
+
+            when(gatewayService.getGatewaysInCidr(anyString(), anyInt(), anyInt()))
+                    .thenReturn(new SliceImpl<>(List.of(gateway), PageRequest.of(0, 10), false));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?cidr={cidr}&size=10&page=0", "10.20.0.0/16")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].id", is(id)))
+                    .andExpect(jsonPath("$.last", is(true)))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn();
+
+            verify(gatewayService, times(1))
+                    .getGatewaysInCidr("10.20.0.0/16", 10, 0);
+            verify(gatewayService, times(0))
+                    .getGateways(anyInt(), anyInt(), any());
+        }
+
+        @Test
+        @DisplayName("Given IP, When get gateways, Returns OK status, Returns Slice of Gateways with that address")
+        void givenIp_whenGetGateways_returnsOkStatus_returnsSliceOfGatewaysWithThatAddress() throws Exception {
+
+            String id = UUID.randomUUID().toString();
+            Gateway gateway = new Gateway(id, "Valid Name", "10.20.1.7", null);
+
+            when(gatewayService.getGatewaysByIpV4Address(anyString(), anyInt(), anyInt()))
+                    .thenReturn(new SliceImpl<>(List.of(gateway), PageRequest.of(0, 10), false));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?ip=10.20.1.7&size=10&page=0")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].ipV4Address", is("10.20.1.7")))
+                    .andReturn();
+
+            verify(gatewayService, times(1))
+                    .getGatewaysByIpV4Address("10.20.1.7", 10, 0);
+        }
+
+        @Test
+        @DisplayName("Given more than one of cursor, cidr and ip, When get gateways, Returns Bad Request status, Loads nothing")
+        void givenMoreThanOneOfCursorCidrAndIp_whenGetGateways_returnsBadRequestStatus_loadsNothing() throws Exception {
+
+            List<String> queries = List.of(
+                    "/gateway/?cursor=&cidr=10.20.0.0/16&size=10&page=0",
+                    "/gateway/?cursor=&ip=10.20.1.7&size=10&page=0",
+                    "/gateway/?cidr=10.20.0.0/16&ip=10.20.1.7&size=10&page=0");
+
+            for (String query : queries) {
+                mockMvc
+                        .perform(get(query)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andDo(print())
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message", is("Bad Request")));
+            }
+
+            verifyNoInteractions(gatewayService);
+        }
+
+        @Test
+        @DisplayName("Given malformed CIDR, When get gateways, Returns Bad Request status")
+        void givenMalformedCidr_whenGetGateways_returnsBadRequestStatus() throws Exception {
+
+            String message = "Invalid CIDR: 10.20.0.0/33";
+
+            when(gatewayService.getGatewaysInCidr(anyString(), anyInt(), anyInt()))
+                    .thenThrow(new InvalidRequestParameterException(message));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/gateway/?cidr={cidr}&size=10&page=0", "10.20.0.0/33")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0].message", is(message)))
+                    .andReturn();
         }
 
     }
@@ -253,6 +604,171 @@ class GatewayControllerTest {
                     .getGateway(anyString());
         }
 
+        @Test
+        @DisplayName("Given If-None-Match of current version, When get gateway, Returns Not Modified, Does not load Gateway")
+        void givenIfNoneMatchOfCurrentVersion_WhenGetGateway_ReturnsNotModified_DoesNotLoadGateway() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 18, 14, 0, 0, 123_456_000);
+
+            when(gatewayService.getGatewayVersion(id1))
+                    .thenReturn(Optional.of(updatedAt));
+
+            mockMvc
+                    .perform(get("/gateway/{id}", id1)
+                            .header(HttpHeaders.IF_NONE_MATCH, EntityTags.of(updatedAt)))
+                    .andDo(print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(updatedAt)))
+                    .andExpect(content().string(""));
+
+            verify(gatewayService, times(0))
+                    .getGateway(anyString());
+
+        }
+
+        @Test
+        @DisplayName("Given If-Modified-Since of current version in whole seconds, When get gateway, Returns Not Modified, Does not load Gateway")
+        void givenIfModifiedSinceOfCurrentVersionInWholeSeconds_WhenGetGateway_ReturnsNotModified_DoesNotLoadGateway() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 18, 14, 0, 3);
+
+            when(gatewayService.getGatewayVersion(id1))
+                    .thenReturn(Optional.of(updatedAt));
+
+            mockMvc
+                    .perform(get("/gateway/{id}", id1)
+                            .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(updatedAt)))
+                    .andDo(print())
+                    .andExpect(status().isNotModified());
+
+            verify(gatewayService, times(0))
+                    .getGateway(anyString());
+
+        }
+
+        @Test
+        @DisplayName("Given If-Modified-Since of a copy changed later within the same second, When get gateway, Returns OK status, Returns Gateway without Last-Modified")
+        void givenIfModifiedSinceOfCopyChangedWithinSameSecond_WhenGetGateway_ReturnsOkStatus_ReturnsGatewayWithoutLastModified() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            LocalDateTime copyUpdatedAt = LocalDateTime.of(2026, 10, 18, 14, 0, 4, 200_000_000);
+            LocalDateTime updatedAt = copyUpdatedAt.plusNanos(300_000_000);
+
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+            gateway1.setUpdatedAt(updatedAt);
+
+            when(gatewayService.getGatewayVersion(id1))
+                    .thenReturn(Optional.of(updatedAt));
+            when(gatewayService.getGateway(id1))
+                    .thenReturn(gateway1);
+
+            mockMvc
+                    .perform(get("/gateway/{id}", id1)
+                            .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(copyUpdatedAt)))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(updatedAt)))
+                    .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                    .andExpect(jsonPath("$.id", is(id1)));
+
+        }
+
+        @Test
+        @DisplayName("Given stale If-None-Match, When get gateway, Returns OK status, Returns Gateway with ETag and Last-Modified")
+        void givenStaleIfNoneMatch_WhenGetGateway_ReturnsOkStatus_ReturnsGatewayWithValidators() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 18, 14, 0, 1);
+
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+            gateway1.setUpdatedAt(updatedAt);
+
+            when(gatewayService.getGatewayVersion(id1))
+                    .thenReturn(Optional.of(updatedAt));
+            when(gatewayService.getGateway(id1))
+                    .thenReturn(gateway1);
+
+            mockMvc
+                    .perform(get("/gateway/{id}", id1)
+                            .header(HttpHeaders.IF_NONE_MATCH, EntityTags.of(updatedAt.minusSeconds(1))))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(updatedAt)))
+                    .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, EntityTags.lastModified(updatedAt)))
+                    .andExpect(jsonPath("$.id", is(id1)))
+                    .andExpect(jsonPath("$.updatedAt").doesNotExist());
+
+        }
+
+        @Test
+        @DisplayName("Given no validators, When get gateway, Returns OK status, Returns validators of the cached Gateway without reading its version")
+        void givenNoValidators_WhenGetGateway_ReturnsOkStatus_ReturnsValidatorsOfCachedGatewayWithoutReadingVersion() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+            LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 18, 14, 0, 2);
+
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+            gateway1.setUpdatedAt(updatedAt);
+
+            when(gatewayService.getGateway(id1))
+                    .thenReturn(gateway1);
+
+            for (int i = 0; i < 2; i++) {
+                mockMvc
+                        .perform(get("/gateway/{id}", id1))
+                        .andDo(print())
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(updatedAt)))
+                        .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, EntityTags.lastModified(updatedAt)))
+                        .andExpect(jsonPath("$.id", is(id1)));
+            }
+
+            verify(gatewayService, times(1))
+                    .getGateway(id1);
+            verify(gatewayService, times(0))
+                    .getGatewayVersion(anyString());
+
+        }
+
+        @Test
+        @DisplayName("Given gateway requested twice, When get gateway, Loads it once, Counts a miss and a hit")
+        void givenGatewayRequestedTwice_whenGetGateway_loadsItOnce_countsMissAndHit() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+
+            when(gatewayService.getGateway(id1))
+                    .thenReturn(gateway1);
+
+            String statsBefore = mockMvc.perform(get("/gateway/cache/stats"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            for (int i = 0; i < 2; i++) {
+                mockMvc
+                        .perform(get("/gateway/{id}", id1)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.id", is(id1)));
+            }
+
+            verify(gatewayService, times(1))
+                    .getGateway(id1);
+
+            String statsAfter = mockMvc.perform(get("/gateway/cache/stats"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            assertEquals(objectMapper.readTree(statsBefore).get("hitCount").asLong() + 1,
+                    objectMapper.readTree(statsAfter).get("hitCount").asLong());
+            assertEquals(objectMapper.readTree(statsBefore).get("missCount").asLong() + 1,
+                    objectMapper.readTree(statsAfter).get("missCount").asLong());
+        }
+
     }
 
     @Nested
@@ -367,6 +883,81 @@ class GatewayControllerTest {
 
         }
 
+        @Test
+        @DisplayName("Given full gateway, When add peripheral, Returns bad request, Returns precomputed cap error")
+        void givenFullGateway_WhenAddPeripheral_ReturnsBadRequest_ReturnsPrecomputedCapError() throws Exception {
+
+            CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+            requestDTO.setGatewayId(UUID.randomUUID().toString());
+            requestDTO.setName("P1");
+            requestDTO.setVendor("Vendor");
+            requestDTO.setStatus("ONLINE");
+
+            when(gatewayService.createGatewayPeripheral(any()))
+                    .thenThrow(new OperationNotAllowedException(GatewayService.PERIPHERAL_CAP_MESSAGE));
+
+            for (int i = 0; i < 2; i++) {
+                mockMvc
+                        .perform(post("/gateway/peripheral")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestDTO)))
+                        .andDo(print())
+                        .andExpect(status().isBadRequest())
+                        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(jsonPath("$.message", is("Bad Request")))
+                        .andExpect(jsonPath("$.errors", hasSize(1)))
+                        .andExpect(jsonPath("$.errors[0].fieldName").doesNotExist())
+                        .andExpect(jsonPath("$.errors[0].message", is(GatewayService.PERIPHERAL_CAP_MESSAGE)));
+            }
+
+        }
+
+        @Test
+        @DisplayName("Given idempotency key used for another peripheral, When add peripheral, Returns bad request, Does not create peripheral")
+        void givenIdempotencyKeyUsedForAnotherPeripheral_WhenAddPeripheral_ReturnsBadRequest_DoesNotCreatePeripheral() throws Exception {
+
+            String idempotencyKey = UUID.randomUUID().toString();
+
+            CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+            requestDTO.setGatewayId(UUID.randomUUID().toString());
+            requestDTO.setName("P1");
+            requestDTO.setVendor("Vendor");
+            requestDTO.setStatus("ONLINE");
+
+            Peripheral peripheral = new Peripheral();
+            peripheral.setId(1L);
+            peripheral.setName("P1");
+            peripheral.setStatus(PeripheralStatus.ONLINE);
+            peripheral.setVendor("Vendor");
+            peripheral.setGatewayId(requestDTO.getGatewayId());
+
+            when(gatewayService.createGatewayPeripheral(any()))
+                    .thenReturn(peripheral);
+
+            mockMvc
+                    .perform(post("/gateway/peripheral")
+                            .header(IdempotentRequests.HEADER, idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requestDTO)))
+                    .andDo(print())
+                    .andExpect(status().isCreated());
+
+            requestDTO.setName("P2");
+
+            mockMvc
+                    .perform(post("/gateway/peripheral")
+                            .header(IdempotentRequests.HEADER, idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requestDTO)))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bad Request")))
+                    .andExpect(jsonPath("$.errors[0].message",
+                            is(IdempotentRequests.HEADER + " " + idempotencyKey + " was already used for a different request")));
+
+            verify(gatewayService, times(1)).createGatewayPeripheral(any());
+        }
+
     }
 
     @Nested
@@ -437,4 +1028,211 @@ class GatewayControllerTest {
 
     }
 
-}
\ No newline at end of file
+    @Nested
+    @DisplayName("UpdatePeripheralStatus")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class UpdatePeripheralStatusTests {
+
+        @Test
+        @DisplayName("Given peripheral ids and status, When update peripheral status, Returns ok status, Returns updated count")
+        void givenPeripheralIdsAndStatus_WhenUpdatePeripheralStatus_ReturnsOkStatus_ReturnsUpdatedCount() throws Exception {
+
+            when(gatewayService.updatePeripheralStatus(any()))
+                    .thenReturn(2);
+
+            UpdatePeripheralStatusRequestDTO dto = new UpdatePeripheralStatusRequestDTO(List.of(1L, 2L, 3L), null, PeripheralStatus.OFFLINE);
+
+            mockMvc
+                    .perform(patch("/gateway/peripheral/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated", is(2)));
+
+            ArgumentCaptor<UpdatePeripheralStatusRequestDTO> updateStatusCaptor = ArgumentCaptor.forClass(UpdatePeripheralStatusRequestDTO.class);
+
+            verify(gatewayService, times(1))
+                    .updatePeripheralStatus(updateStatusCaptor.capture());
+
+            assertEquals(List.of(1L, 2L, 3L), updateStatusCaptor.getValue().getPeripheralIds());
+            assertEquals(PeripheralStatus.OFFLINE, updateStatusCaptor.getValue().getStatus());
+
+        }
+
+        @Test
+        @DisplayName("Given request without status, When update peripheral status, Returns Bad Request status, Returns Error with Field Name")
+        void givenRequestWithoutStatus_WhenUpdatePeripheralStatus_ReturnsBadRequest_ReturnsErrorWithFieldName() throws Exception {
+
+            UpdatePeripheralStatusRequestDTO dto = new UpdatePeripheralStatusRequestDTO(List.of(1L), null, null);
+
+            mockMvc
+                    .perform(patch("/gateway/peripheral/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0].fieldName", is("status")));
+
+            verify(gatewayService, times(0))
+                    .updatePeripheralStatus(any());
+
+        }
+
+        @Test
+        @DisplayName("Given more peripheral ids than allowed, When update peripheral status, Returns Bad Request status, Updates nothing")
+        void givenMorePeripheralIdsThanAllowed_WhenUpdatePeripheralStatus_ReturnsBadRequest_UpdatesNothing() throws Exception {
+
+            List<Long> peripheralIds = LongStream.rangeClosed(1, UpdatePeripheralStatusRequestDTO.MAX_PERIPHERAL_IDS + 1)
+                    .boxed()
+                    .collect(Collectors.toList());
+
+            UpdatePeripheralStatusRequestDTO dto = new UpdatePeripheralStatusRequestDTO(peripheralIds, null, PeripheralStatus.ONLINE);
+
+            mockMvc
+                    .perform(patch("/gateway/peripheral/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0].fieldName", is("peripheralIds")));
+
+            verify(gatewayService, times(0))
+                    .updatePeripheralStatus(any());
+
+        }
+
+        @Test
+        @DisplayName("Given both peripheral ids and gateway id, When update peripheral status, Returns Bad Request status, Returns Error Message")
+        void givenBothPeripheralIdsAndGatewayId_WhenUpdatePeripheralStatus_ReturnsBadRequest_ReturnsErrorMessage() throws Exception {
+
+            String message = "Either peripheralIds or gatewayId is required, not both.";
+
+            when(gatewayService.updatePeripheralStatus(any()))
+                    .thenThrow(new InvalidRequestParameterException(message));
+
+            UpdatePeripheralStatusRequestDTO dto = new UpdatePeripheralStatusRequestDTO(List.of(1L),
+                    UUID.randomUUID().toString(), PeripheralStatus.ONLINE);
+
+            mockMvc
+                    .perform(patch("/gateway/peripheral/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bad Request")))
+                    .andExpect(jsonPath("$.errors[0].message", is(message)));
+
+        }
+
+    }
+
+    @Nested
+    @DisplayName("ImportGateways")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ImportGatewaysTests {
+
+        @Test
+        @DisplayName("Given JSON array body, When import gateways, Passes body to import, Returns one NDJSON line per item result")
+        void givenJsonArrayBody_WhenImportGateways_PassesBodyToImport_ReturnsOneNdjsonLinePerItemResult() throws Exception {
+
+            String id = UUID.randomUUID().toString();
+
+            doAnswer(invocation -> {
+                InputStream body = invocation.getArgument(0);
+                assertThat(new String(body.readAllBytes())).contains("Gateway 1");
+
+                Consumer<GatewayImportResultDTO> resultConsumer = invocation.getArgument(1);
+                resultConsumer.accept(new GatewayImportResultDTO(1, GatewayImportResultDTO.Status.INVALID, null,
+                        List.of(new ErrorDetails("ipV4Address", "Invalid IP"))));
+                resultConsumer.accept(new GatewayImportResultDTO(0, GatewayImportResultDTO.Status.CREATED, id, null));
+
+                return 1L;
+            }).when(gatewayImportService).importGateways(any(), any());
+
+            String requestBody = objectMapper.writeValueAsString(List.of(
+                    new CreateGatewayDTO("Gateway 1", "192.168.0.1"),
+                    new CreateGatewayDTO("Gateway 2", "192.168.0")));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(post("/gateway/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(requestBody))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn();
+
+            String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+
+            assertEquals(2, lines.length);
+
+            GatewayImportResultDTO invalidResult = objectMapper.readValue(lines[0], GatewayImportResultDTO.class);
+            assertEquals(1, invalidResult.getIndex());
+            assertEquals(GatewayImportResultDTO.Status.INVALID, invalidResult.getStatus());
+            assertEquals("ipV4Address", invalidResult.getErrors().get(0).getFieldName());
+
+            GatewayImportResultDTO createdResult = objectMapper.readValue(lines[1], GatewayImportResultDTO.class);
+            assertEquals(0, createdResult.getIndex());
+            assertEquals(GatewayImportResultDTO.Status.CREATED, createdResult.getStatus());
+            assertEquals(id, createdResult.getId());
+
+        }
+
+        @Test
+        @DisplayName("Given NDJSON body, When import gateways, Accepts NDJSON content type")
+        void givenNdjsonBody_WhenImportGateways_AcceptsNdjsonContentType() throws Exception {
+
+            when(gatewayImportService.importGateways(any(), any()))
+                    .thenReturn(0L);
+
+            mockMvc
+                    .perform(post("/gateway/bulk")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"name\":\"Gateway 1\",\"ipV4Address\":\"192.168.0.1\"}\n"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(""));
+
+            verify(gatewayImportService, times(1))
+                    .importGateways(any(), any());
+
+        }
+
+    }
+
+    @Nested
+    @DisplayName("ExportGateways")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ExportGatewaysTests {
+
+        @Test
+        @DisplayName("Given gateways, When export gateways, Returns ok status, Streams export to response as NDJSON")
+        void givenGateways_WhenExportGateways_ReturnsOkStatus_StreamsExportToResponseAsNdjson() throws Exception {
+
+            String line = "{\"id\":\"" + UUID.randomUUID() + "\",\"peripherals\":[]}\n";
+
+            doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(0);
+                out.write(line.getBytes());
+                return 1L;
+            }).when(gatewayExportService).exportGateways(any());
+
+            mockMvc
+                    .perform(get("/gateway/export"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(line));
+
+            verify(gatewayService, times(0))
+                    .getGateway(anyString());
+
+        }
+
+    }
+
+    private static String httpDate(LocalDateTime updatedAt) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(EntityTags.lastModified(updatedAt)).atZone(ZoneOffset.UTC));
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayView;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralView;
+import com.musala.test.samplegatewayservice.services.CountMode;
+import com.musala.test.samplegatewayservice.services.EntityNotFoundException;
+import com.musala.test.samplegatewayservice.services.GatewayReadService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = GatewayViewController.class)
+@AutoConfigureMockMvc
+class GatewayViewControllerTest {
+
+    @MockBean
+    private GatewayReadService gatewayReadService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Nested
+    @DisplayName("GetGateways")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewaysTests {
+
+        @Test
+        @DisplayName("Given valid request, When get gateway views, Returns OK status, Returns page of Gateways with Peripherals")
+        void givenValidRequest_WhenGetGatewayViews_ReturnsOkStatus_ReturnsPageOfGatewaysWithPeripherals() throws Exception {
+
+            GatewayView gateway = gateway("Valid Name 1");
+
+            when(gatewayReadService.getGateways(2, 0, CountMode.EXACT))
+                    .thenReturn(new PageImpl<>(List.of(gateway), PageRequest.of(0, 2), 1));
+
+            mockMvc
+                    .perform(get("/view/gateway")
+                            .param("size", "2")
+                            .param("page", "0"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements", is(1)))
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].id", is(gateway.getId())))
+                    .andExpect(jsonPath("$.content[0].ipV4Address", is("192.168.0.1")))
+                    .andExpect(jsonPath("$.content[0].peripherals[0].id", equalTo(7L), Long.class))
+                    .andExpect(jsonPath("$.content[0].peripherals[0].gatewayId", is(gateway.getId())));
+
+        }
+
+        @Test
+        @DisplayName("Given page size over the limit, When get gateway views, Returns Bad Request status, Loads nothing")
+        void givenPageSizeOverLimit_WhenGetGatewayViews_ReturnsBadRequestStatus_LoadsNothing() throws Exception {
+
+            mockMvc
+                    .perform(get("/view/gateway")
+                            .param("size", String.valueOf(PageParameters.MAX_PAGE_SIZE + 1))
+                            .param("page", "0"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bad Request")));
+
+            verifyNoInteractions(gatewayReadService);
+
+        }
+
+    }
+
+    @Nested
+    @DisplayName("GetGateway")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewayTests {
+
+        @Test
+        @DisplayName("Given request with Not Existing Id, When get gateway view, Returns Bad Request, Returns Error Message")
+        void givenRequestWithNotExistingId_WhenGetGatewayView_ReturnsBadRequest_ReturnsErrorMessage() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+
+            when(gatewayReadService.getGateway(id1))
+                    .thenThrow(new EntityNotFoundException("Gateway Not Found by ID: " + id1));
+
+            mockMvc
+                    .perform(get("/view/gateway/{id}", id1))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0].message", is("Gateway Not Found by ID: " + id1)));
+
+        }
+
+    }
+
+    private static GatewayView gateway(String name) {
+
+        String id = UUID.randomUUID().toString();
+
+        return new GatewayView(id, name, "192.168.0.1",
+                List.of(new PeripheralView(7L, "P", "Vendor", id, "ONLINE")));
+    }
+
+}
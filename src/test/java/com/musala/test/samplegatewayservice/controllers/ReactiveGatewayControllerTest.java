@@ -0,0 +1,169 @@
+package com.musala.test.samplegatewayservice.controllers;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.repo.ReactiveGatewayRepo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ReactiveGatewayController.class)
+@AutoConfigureMockMvc
+class ReactiveGatewayControllerTest {
+
+    @MockBean
+    private ReactiveGatewayRepo reactiveGatewayRepo;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Nested
+    @DisplayName("GetGateways")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewaysTests {
+
+        @Test
+        @DisplayName("Given valid page size and page no, When get gateways as NDJSON, Returns OK status, Streams one line per gateway")
+        void givenValidPageSizeAndPageNo_WhenGetGatewaysAsNdjson_ReturnsOkStatus_StreamsOneLinePerGateway() throws Exception {
+
+            GatewayResponseDTO gateway1 = gateway("Valid Name 1");
+            GatewayResponseDTO gateway2 = gateway("Valid Name 2");
+
+            when(reactiveGatewayRepo.findGateways(2, 4))
+                    .thenReturn(Flux.just(gateway1, gateway2));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/reactive/gateway")
+                            .param("size", "2")
+                            .param("page", "2")
+                            .accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+            String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains(gateway1.getId());
+            assertThat(lines[1]).contains(gateway2.getId());
+
+        }
+
+        @Test
+        @DisplayName("Given page size over the limit, When get gateways, Returns Bad Request status, Does not query")
+        void givenPageSizeOverLimit_WhenGetGateways_ReturnsBadRequestStatus_DoesNotQuery() throws Exception {
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/reactive/gateway")
+                            .param("size", String.valueOf(ReactiveGatewayController.MAX_PAGE_SIZE + 1))
+                            .param("page", "0")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bad Request")));
+
+            verify(reactiveGatewayRepo, times(0))
+                    .findGateways(anyInt(), anyLong());
+
+        }
+
+    }
+
+    @Nested
+    @DisplayName("GetGateway")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewayTests {
+
+        @Test
+        @DisplayName("Given request with Existing ID, When get gateway, Returns OK status, Returns Gateway")
+        void givenRequestWithExistingId_WhenGetGateway_ReturnsOkStatus_ReturnsGateway() throws Exception {
+
+            GatewayResponseDTO gateway1 = gateway("Valid Name 1");
+
+            when(reactiveGatewayRepo.findGateway(gateway1.getId()))
+                    .thenReturn(Mono.just(gateway1));
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/reactive/gateway/{id}", gateway1.getId()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(gateway1.getId())))
+                    .andExpect(jsonPath("$.name", is("Valid Name 1")));
+
+        }
+
+        @Test
+        @DisplayName("Given request with Not Existing Id, When get gateway, Returns Bad Request, Returns Error Message")
+        void givenRequestWithNotExistingId_WhenGetGateway_ReturnsBadRequest_ReturnsErrorMessage() throws Exception {
+
+            String id1 = UUID.randomUUID().toString();
+
+            when(reactiveGatewayRepo.findGateway(eq(id1)))
+                    .thenReturn(Mono.empty());
+
+            MvcResult mvcResult = mockMvc
+                    .perform(get("/reactive/gateway/{id}", id1))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0].message", is("Gateway Not Found by ID: " + id1)));
+
+            verify(reactiveGatewayRepo, times(1))
+                    .findGateway(anyString());
+
+        }
+
+    }
+
+    private static GatewayResponseDTO gateway(String name) {
+
+        GatewayResponseDTO gateway = new GatewayResponseDTO();
+        gateway.setId(UUID.randomUUID().toString());
+        gateway.setName(name);
+        gateway.setIpV4Address("192.168.0.1");
+
+        return gateway;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.musala.test.samplegatewayservice.load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Stored throughput (requests per second) and p99 latency (milliseconds) per scenario, as &lt;scenario&gt;.throughput and &lt;scenario&gt;.p99.
+ * A result regresses when its throughput drops, or its p99 grows, by more than the tolerance relative to the baseline.
+ * */
+final class Baselines {
+
+    private final Path file;
+
+    private final Properties values = new Properties();
+
+    private final double tolerance;
+
+    Baselines(Path file, double tolerance) throws IOException {
+
+        this.file = file;
+        this.tolerance = tolerance;
+
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                values.load(reader);
+            }
+        }
+    }
+
+    boolean contains(String scenario) {
+        return values.containsKey(scenario + ".throughput") || values.containsKey(scenario + ".p99");
+    }
+
+    /**
+     * @return the regressions of the result against the stored baseline, empty when there is none or no baseline for the scenario
+     * */
+    List<String> regressions(LoadResult result) {
+
+        List<String> regressions = new ArrayList<>();
+
+        String throughput = values.getProperty(result.getScenario() + ".throughput");
+
+        if (throughput != null && result.getThroughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "throughput %.1f req/s is below baseline %s req/s by more than %.0f%%",
+                    result.getThroughput(), throughput, tolerance * 100));
+        }
+
+        String p99 = values.getProperty(result.getScenario() + ".p99");
+
+        if (p99 != null && result.getP99() > Double.parseDouble(p99) * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "p99 %.2f ms is above baseline %s ms by more than %.0f%%",
+                    result.getP99(), p99, tolerance * 100));
+        }
+
+        return regressions;
+    }
+
+    /**
+     * Replaces the stored baselines of the given scenarios with their results, keeps the others
+     * */
+    void update(Collection<LoadResult> results) throws IOException {
+
+        TreeMap<String, String> updated = new TreeMap<>();
+        values.stringPropertyNames().forEach(key -> updated.put(key, values.getProperty(key)));
+
+        for (LoadResult result : results) {
+            updated.put(result.getScenario() + ".throughput", String.format(Locale.ROOT, "%.1f", result.getThroughput()));
+            updated.put(result.getScenario() + ".p99", String.format(Locale.ROOT, "%.2f", result.getP99()));
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+
+            writer.write("# Throughput (<scenario>.throughput, requests per second) and p99 latency (<scenario>.p99, milliseconds) GatewayLoadTest compares against.\n");
+            writer.write("# Numbers are only comparable on the machine and with the settings they were recorded with, record them on the release machine with\n");
+            writer.write("#   mvn -Pload-test test -Dload.update-baselines=true\n");
+            writer.write("# A scenario without a baseline records its first result here.\n");
+
+            for (var entry : updated.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+
+    }
+
+}
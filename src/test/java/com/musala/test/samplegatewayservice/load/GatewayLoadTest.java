@@ -0,0 +1,422 @@
+package com.musala.test.samplegatewayservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.models.ids.TimeOrderedUuidGenerator;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import com.musala.test.samplegatewayservice.services.GatewayCursor;
+import com.musala.test.samplegatewayservice.services.GatewayService;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End to end load test of the gateway API: the whole application on a random port against the embedded database, seeded with
+ * gateways carrying 0 to 10 peripherals, driven over HTTP one scenario at a time. Needs no network access.
+ * <p>
+ * Excluded from the regular build, run it with {@code mvn -Pload-test test}. Settings are system properties:
+ * load.concurrency (16), load.warmup (PT5S), load.duration (PT20S), load.gateways (10000), load.scenarios (comma separated, all by default),
+ * load.tolerance (0.25), load.baselines (src/test/resources/load/baselines.properties) and load.update-baselines (false).
+ * The connection pool is sized to twice the concurrency.
+ * Any application property can be passed the same way, so thread modes or peripheral ID strategies are compared by running the suite
+ * with e.g. -Dgateway.threads.mode=virtual against a baselines file of its own. The reactive scenarios compare with their MVC counterparts.
+ * Next to the latencies every result carries the peak live JVM threads, busy Tomcat workers and active and pending connections
+ * of the JDBC and R2DBC pools, read from the application's meters.
+ * <p>
+ * A scenario fails on any unsuccessful response and when it regresses past its baseline, see {@link Baselines}. A scenario without
+ * a baseline records its result as the baseline and logs a warning, so new scenarios are compared from their second run on.
+ * Baselines only mean something on the machine they were recorded on, record them there with -Dload.update-baselines=true.
+ * Results of every run are written to target/load-results.json.
+ * */
+@Log4j2
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GatewayLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+
+    private static final int SEEDED_GATEWAYS = Integer.getInteger("load.gateways", 10_000);
+
+    private static final Set<String> SCENARIOS = Arrays.stream(System.getProperty("load.scenarios", "").split(","))
+            .map(String::trim)
+            .filter(scenario -> !scenario.isEmpty())
+            .collect(Collectors.toSet());
+
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+
+    private static final Path BASELINES = Path.of(System.getProperty("load.baselines", "src/test/resources/load/baselines.properties"));
+
+    private static final boolean UPDATE_BASELINES = Boolean.getBoolean("load.update-baselines");
+
+    private static final Path RESULTS = Path.of("target", "load-results.json");
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int BULK_IMPORT_SIZE = 100;
+
+    private static final int MAX_PERIPHERALS_PER_SEEDED_GATEWAY = 10;
+
+    private static final long SEEDED_PERIPHERAL_ID_OFFSET = 1_000_000_000L;
+
+    private static final LocalDateTime SEEDED_FROM = LocalDateTime.of(2021, 7, 12, 0, 0);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+        // sequence based peripheral IDs take a second connection per creation, a smaller pool deadlocks peripheral-create-delete
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 2 * CONCURRENCY);
+        // tomcat.threads.busy is only bound with Tomcat's MBeans
+        registry.add("server.tomcat.mbeanregistry.enabled", () -> true);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final List<String> seededGatewayIds = new ArrayList<>();
+
+    private final List<String> seededIpV4Addresses = new ArrayList<>();
+
+    /**
+     * One gateway without peripherals per worker, so creating and deleting peripherals never hits the cap
+     * */
+    private final List<String> workerGatewayIds = new ArrayList<>();
+
+    /**
+     * Gateway without peripherals all workers add to at once, so creations contend for its row and its cap
+     * */
+    private String sharedGatewayId;
+
+    private final List<LoadResult> results = new ArrayList<>();
+
+    private final List<LoadResult> withoutBaseline = new ArrayList<>();
+
+    private String deepCursor;
+
+    private int deepPage;
+
+    private Baselines baselines;
+
+    @BeforeAll
+    void seed() throws IOException {
+
+        baselines = new Baselines(BASELINES, TOLERANCE);
+
+        Random random = new Random(42);
+
+        List<Object[]> gateways = new ArrayList<>();
+        List<Object[]> peripherals = new ArrayList<>();
+
+        for (int i = 0; i < SEEDED_GATEWAYS + CONCURRENCY + 1; i++) {
+
+            String id = TimeOrderedUuidGenerator.nextUuid().toString();
+            Timestamp timestamp = Timestamp.valueOf(SEEDED_FROM.plusSeconds(i));
+            String ipV4Address = "10." + random.nextInt(4) + "." + random.nextInt(256) + "." + random.nextInt(256);
+
+            boolean workerGateway = i >= SEEDED_GATEWAYS;
+            int peripheralCount = workerGateway ? 0 : random.nextInt(MAX_PERIPHERALS_PER_SEEDED_GATEWAY + 1);
+
+            if (i == SEEDED_GATEWAYS + CONCURRENCY) {
+                sharedGatewayId = id;
+            } else if (workerGateway) {
+                workerGatewayIds.add(id);
+            } else {
+                seededGatewayIds.add(id);
+                seededIpV4Addresses.add(ipV4Address);
+            }
+
+            gateways.add(new Object[]{UuidBytes.toBytes(id), timestamp, timestamp, "Load " + i, ipV4Address, peripheralCount});
+
+            for (int j = 0; j < peripheralCount; j++) {
+                long peripheralId = SEEDED_PERIPHERAL_ID_OFFSET + (long) i * MAX_PERIPHERALS_PER_SEEDED_GATEWAY + j;
+                peripherals.add(new Object[]{peripheralId, UuidBytes.toBytes(id), timestamp, timestamp, "Peripheral " + j,
+                        random.nextBoolean() ? "ONLINE" : "OFFLINE", "Vendor " + random.nextInt(20)});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO gateways (id, created_at, updated_at, name, ip_v4_address, peripheral_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", gateways);
+        jdbcTemplate.batchUpdate("INSERT INTO peripherals (id, gateway_id, created_at, updated_at, name, status, vendor) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", peripherals);
+
+        jdbcTemplate.execute("ANALYZE TABLE gateways, peripherals");
+
+        int deepIndex = SEEDED_GATEWAYS * 9 / 10;
+        deepPage = deepIndex / PAGE_SIZE;
+        deepCursor = new GatewayCursor(SEEDED_FROM.plusSeconds(deepIndex), seededGatewayIds.get(deepIndex)).encode();
+
+        log.info("Seeded {} gateways with {} peripherals", gateways.size(), peripherals.size());
+
+    }
+
+    @TestFactory
+    Stream<DynamicTest> scenarios() {
+
+        return scenarioSteps().entrySet().stream()
+                .filter(scenario -> SCENARIOS.isEmpty() || SCENARIOS.contains(scenario.getKey()))
+                .map(scenario -> DynamicTest.dynamicTest(scenario.getKey(), () -> {
+
+                    LoadResult result = LoadDriver.run(scenario.getKey(), scenario.getValue(), CONCURRENCY, WARMUP, DURATION, gauges());
+
+                    results.add(result);
+                    log.info("{}", result);
+
+                    assertThat(result.getErrors()).as("unsuccessful responses of %s", result.getScenario()).isZero();
+                    assertThat(result.getRequests()).as("completed requests of %s", result.getScenario()).isPositive();
+
+                    if (UPDATE_BASELINES) {
+                        return;
+                    }
+
+                    if (!baselines.contains(result.getScenario())) {
+                        log.warn("No baseline of {} in {}, its result is recorded as the baseline", result.getScenario(), BASELINES);
+                        withoutBaseline.add(result);
+                        return;
+                    }
+
+                    assertThat(baselines.regressions(result)).as("regressions of %s", result.getScenario()).isEmpty();
+                }));
+
+    }
+
+    @AfterAll
+    void writeResults() throws IOException {
+
+        Files.createDirectories(RESULTS.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(RESULTS.toFile(), results);
+
+        List<LoadResult> recorded = UPDATE_BASELINES ? results : withoutBaseline;
+
+        if (!recorded.isEmpty()) {
+            baselines.update(recorded);
+            log.info("Updated {} baselines in {}", recorded.size(), BASELINES);
+        }
+
+    }
+
+    /**
+     * Threads and connections in use, they tell the reactive scenarios apart from their MVC counterparts more than the latencies
+     * */
+    private Map<String, DoubleSupplier> gauges() {
+
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+
+        gauges.put("jvm-threads", gauge("jvm.threads.live"));
+        gauges.put("tomcat-busy", gauge("tomcat.threads.busy"));
+        gauges.put("jdbc-active", gauge("hikaricp.connections.active"));
+        gauges.put("jdbc-pending", gauge("hikaricp.connections.pending"));
+        gauges.put("r2dbc-acquired", gauge("r2dbc.pool.acquired"));
+        gauges.put("r2dbc-pending", gauge("r2dbc.pool.pending"));
+
+        return gauges;
+    }
+
+    /**
+     * Sum over the meters of that name, e.g. one per pool, NaN when there is none
+     * */
+    private DoubleSupplier gauge(String name) {
+        return () -> meterRegistry.find(name).gauges().stream()
+                .mapToDouble(Gauge::value)
+                .reduce(Double::sum)
+                .orElse(Double.NaN);
+    }
+
+    /**
+     * Every GatewayController endpoint and the reactive reads, reads first so they see the seeded data set only
+     * */
+    private Map<String, LoadDriver.Step> scenarioSteps() {
+
+        Map<String, LoadDriver.Step> steps = new LinkedHashMap<>();
+
+        steps.put("list-offset", (worker, iteration) ->
+                send(get("/gateway?size=" + PAGE_SIZE + "&page=" + random(100) + "&count=exact")));
+        steps.put("list-offset-deep", (worker, iteration) ->
+                send(get("/gateway?size=" + PAGE_SIZE + "&page=" + deepPage + "&count=none")));
+        steps.put("list-cursor-deep", (worker, iteration) ->
+                send(get("/gateway?size=" + PAGE_SIZE + "&cursor=" + deepCursor)));
+        steps.put("list-cidr", (worker, iteration) ->
+                send(get("/gateway?cidr=10." + random(4) + "." + random(256) + ".0/24&size=" + PAGE_SIZE + "&page=0")));
+        steps.put("list-by-ip", (worker, iteration) ->
+                send(get("/gateway?ip=" + seededIpV4Addresses.get(random(seededIpV4Addresses.size())) + "&size=" + PAGE_SIZE + "&page=0")));
+        steps.put("get-gateway", (worker, iteration) ->
+                send(get("/gateway/" + seededGatewayIds.get(random(seededGatewayIds.size())))));
+        steps.put("reactive-list", (worker, iteration) ->
+                send(get("/reactive/gateway?size=" + PAGE_SIZE + "&page=" + random(100))));
+        steps.put("reactive-get", (worker, iteration) ->
+                send(get("/reactive/gateway/" + seededGatewayIds.get(random(seededGatewayIds.size())))));
+        steps.put("cache-stats", (worker, iteration) ->
+                send(get("/gateway/cache/stats")));
+        steps.put("export", (worker, iteration) ->
+                send(get("/gateway/export", MediaType.APPLICATION_NDJSON_VALUE)));
+
+        steps.put("create-gateway", (worker, iteration) ->
+                send(post("/gateway", MediaType.APPLICATION_JSON_VALUE, json(Map.of(
+                        "name", "Load " + worker + "-" + iteration,
+                        "ipV4Address", "172.16." + (worker % 256) + "." + (iteration % 256))))));
+        steps.put("bulk-import", (worker, iteration) ->
+                send(post("/gateway/bulk", MediaType.APPLICATION_NDJSON_VALUE, bulkImportBody(worker, iteration))));
+        steps.put("peripheral-create-delete", (worker, iteration) -> {
+
+            String created = sendForBody(post("/gateway/peripheral", MediaType.APPLICATION_JSON_VALUE, json(Map.of(
+                    "gatewayId", workerGatewayIds.get(worker),
+                    "name", "Load",
+                    "vendor", "Vendor",
+                    "status", "ONLINE"))));
+
+            send(HttpRequest.newBuilder(uri("/gateway/peripheral/" + objectMapper.readTree(created).get("id").asLong()))
+                    .DELETE()
+                    .build());
+        });
+        steps.put("peripheral-create-delete-shared", (worker, iteration) -> {
+
+            HttpRequest create = post("/gateway/peripheral", MediaType.APPLICATION_JSON_VALUE, json(Map.of(
+                    "gatewayId", sharedGatewayId,
+                    "name", "Load " + worker,
+                    "vendor", "Vendor",
+                    "status", "ONLINE")));
+
+            HttpResponse<String> created = client.send(create, HttpResponse.BodyHandlers.ofString());
+
+            // a full gateway rejects the creation without writing, that is the expected answer under contention
+            if (created.statusCode() == 400 && created.body().contains(GatewayService.PERIPHERAL_CAP_MESSAGE)) {
+                return;
+            }
+
+            checkStatus(create, created.statusCode());
+
+            send(HttpRequest.newBuilder(uri("/gateway/peripheral/" + objectMapper.readTree(created.body()).get("id").asLong()))
+                    .DELETE()
+                    .build());
+        });
+        steps.put("update-peripheral-status", (worker, iteration) ->
+                send(HttpRequest.newBuilder(uri("/gateway/peripheral/status"))
+                        .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(json(Map.of(
+                                "gatewayId", seededGatewayIds.get(random(seededGatewayIds.size())),
+                                "status", iteration % 2 == 0 ? "OFFLINE" : "ONLINE"))))
+                        .build()));
+
+        return steps;
+    }
+
+    private String bulkImportBody(int worker, long iteration) throws IOException {
+
+        StringBuilder body = new StringBuilder();
+
+        for (int i = 0; i < BULK_IMPORT_SIZE; i++) {
+            body.append(json(Map.of(
+                    "name", "Bulk " + worker + "-" + iteration + "-" + i,
+                    "ipV4Address", "172.17." + (worker % 256) + "." + i)))
+                    .append('\n');
+        }
+
+        return body.toString();
+    }
+
+    private void send(HttpRequest request) throws IOException, InterruptedException {
+
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+        checkStatus(request, response.statusCode());
+    }
+
+    private String sendForBody(HttpRequest request) throws IOException, InterruptedException {
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        checkStatus(request, response.statusCode());
+
+        return response.body();
+    }
+
+    private static void checkStatus(HttpRequest request, int status) {
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " answered " + status);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return get(path, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private HttpRequest get(String path, String accept) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Accept", accept)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String contentType, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+}
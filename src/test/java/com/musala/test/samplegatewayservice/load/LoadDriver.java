@@ -0,0 +1,157 @@
+package com.musala.test.samplegatewayservice.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Runs a scenario from a fixed number of closed loop workers, each sending its next request as soon as the previous one completed.
+ * Iterations started during the warmup are not recorded, the measured window starts when the warmup ends.
+ * Gauges, like the threads or connections in use, are sampled through the measured window and their peaks reported.
+ * */
+final class LoadDriver {
+
+    /**
+     * One iteration of a scenario, throws when a response is not successful
+     * */
+    @FunctionalInterface
+    interface Step {
+
+        void run(int worker, long iteration) throws Exception;
+
+    }
+
+    private static final long GAUGE_SAMPLE_INTERVAL_MILLIS = 10;
+
+    private LoadDriver() {
+    }
+
+    static LoadResult run(String scenario, Step step, int concurrency, Duration warmup, Duration duration,
+                          Map<String, DoubleSupplier> gauges) throws Exception {
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        Map<String, Double> peaks = new ConcurrentHashMap<>();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            if (System.nanoTime() >= measureFrom) {
+                gauges.forEach((name, gauge) -> peaks.merge(name, gauge.getAsDouble(), Math::max));
+            }
+        }, GAUGE_SAMPLE_INTERVAL_MILLIS, GAUGE_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        try {
+            List<Future<LatencyBuffer>> results = new ArrayList<>();
+
+            for (int i = 0; i < concurrency; i++) {
+
+                int worker = i;
+
+                results.add(workers.submit(() -> {
+
+                    LatencyBuffer latencies = new LatencyBuffer();
+
+                    for (long iteration = 0; ; iteration++) {
+
+                        long start = System.nanoTime();
+
+                        if (start >= measureUntil) {
+                            return latencies;
+                        }
+
+                        boolean failed = false;
+
+                        try {
+                            step.run(worker, iteration);
+                        } catch (Exception e) {
+                            failed = true;
+                        }
+
+                        if (start >= measureFrom) {
+                            latencies.add(System.nanoTime() - start);
+                            if (failed) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+
+            List<long[]> latencies = new ArrayList<>();
+
+            for (Future<LatencyBuffer> result : results) {
+                latencies.add(result.get().toArray());
+            }
+
+            // iterations still running at the end of the window are recorded, so the window is as long as the slowest worker
+            double seconds = Math.max(duration.toNanos(), System.nanoTime() - measureFrom) / 1_000_000_000.0;
+
+            sampler.shutdown();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+
+            Map<String, Double> orderedPeaks = new LinkedHashMap<>();
+            gauges.keySet().forEach(name -> orderedPeaks.put(name, peaks.getOrDefault(name, Double.NaN)));
+
+            return LoadResult.of(scenario, concurrency, concat(latencies), errors.get(), seconds, orderedPeaks);
+        } finally {
+            sampler.shutdownNow();
+            workers.shutdownNow();
+        }
+
+    }
+
+    private static long[] concat(List<long[]> arrays) {
+
+        long[] all = new long[arrays.stream().mapToInt(array -> array.length).sum()];
+
+        int offset = 0;
+
+        for (long[] array : arrays) {
+            System.arraycopy(array, 0, all, offset, array.length);
+            offset += array.length;
+        }
+
+        return all;
+    }
+
+    /**
+     * Growable primitive buffer, recording a latency must not box or allocate per request
+     * */
+    private static final class LatencyBuffer {
+
+        private long[] values = new long[4096];
+
+        private int size;
+
+        void add(long value) {
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.musala.test.samplegatewayservice.load;
+
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of one scenario over its measured window, latencies in milliseconds.
+ * Peaks are the highest sampled value of each gauge of the run in the same window, NaN when the gauge had no meter.
+ * */
+@Value
+public class LoadResult {
+
+    String scenario;
+
+    int concurrency;
+
+    long requests;
+
+    long errors;
+
+    double throughput;
+
+    double p50;
+
+    double p95;
+
+    double p99;
+
+    double max;
+
+    Map<String, Double> peaks;
+
+    static LoadResult of(String scenario, int concurrency, long[] latencyNanos, long errors, double seconds, Map<String, Double> peaks) {
+
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+
+        return new LoadResult(scenario, concurrency, sorted.length, errors, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0), peaks);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder peakValues = new StringBuilder();
+        peaks.forEach((name, peak) -> peakValues.append(String.format("  %s %.0f", name, peak)));
+
+        return String.format("%-26s %4d threads %9d requests %6d errors %10.1f req/s  p50 %8.2f ms  p95 %8.2f ms  p99 %8.2f ms  max %8.2f ms  peak%s",
+                scenario, concurrency, requests, errors, throughput, p50, p95, p99, max, peakValues);
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.musala.test.samplegatewayservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.SampleGatewayServiceApplication;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time to first request of the application with and without the fast-startup profile. Every run starts a new JVM against the
+ * embedded database and polls a gateway listing until it is answered, all variants run with the prod profile.
+ * <p>
+ * When mvn -Pcds package laid the application out in target/cds, every variant runs from there and fast-startup is also measured
+ * with a class data sharing archive, recorded by a training run first. Otherwise the variants run on the test classpath.
+ * <p>
+ * Part of the load tests, settings are the system properties load.startup-runs (5) and load.startup-timeout (PT2M).
+ * Median times are logged and written to target/startup-results.json with the times of every run.
+ * */
+@Log4j2
+@Tag("load")
+class StartupTimeTest {
+
+    private static final int RUNS = Integer.getInteger("load.startup-runs", 5);
+
+    private static final Duration TIMEOUT = Duration.parse(System.getProperty("load.startup-timeout", "PT2M"));
+
+    private static final Path RESULTS = Path.of("target", "startup-results.json");
+
+    private static final Path CDS_LAYOUT = Path.of("target", "cds");
+
+    private static final Path CDS_ARCHIVE = CDS_LAYOUT.resolve("application.jsa");
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+
+        String url = LocalDatabase.jdbcUrl(LocalDatabase.DATABASE_NAME);
+
+        // the first run would otherwise also pay for the migrations
+        Flyway.configure().dataSource(url, "root", "").load().migrate();
+
+        String classpath = System.getProperty("java.class.path");
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("prod", "prod", List.of()));
+        variants.add(new Variant("prod,fast-startup", "prod,fast-startup", List.of()));
+
+        // dynamic archives need JDK 13+
+        if (Files.isDirectory(CDS_LAYOUT) && Runtime.version().feature() >= 13) {
+
+            classpath = cdsClasspath();
+
+            Files.deleteIfExists(CDS_ARCHIVE);
+            timeToFirstRequest(new Variant("CDS training", "prod,fast-startup",
+                    List.of("-XX:ArchiveClassesAtExit=" + CDS_ARCHIVE)), classpath, url);
+
+            assertThat(CDS_ARCHIVE).as("archive written by the training run").exists();
+
+            // fails to start instead of silently running without the archive
+            variants.add(new Variant("prod,fast-startup with CDS", "prod,fast-startup",
+                    List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Xshare:on")));
+        } else {
+            log.info("No {} on JDK 13+, run mvn -Pcds package first to measure class data sharing", CDS_LAYOUT);
+        }
+
+        Map<String, List<Long>> millis = new LinkedHashMap<>();
+        variants.forEach(variant -> millis.put(variant.getName(), new ArrayList<>()));
+
+        // alternated, so all variants see the same page cache and database state
+        for (int run = 0; run < RUNS; run++) {
+            for (Variant variant : variants) {
+                millis.get(variant.getName()).add(timeToFirstRequest(variant, classpath, url));
+            }
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+
+        millis.forEach((variant, runs) -> {
+
+            long median = runs.stream().sorted().skip(runs.size() / 2).findFirst().orElseThrow();
+
+            log.info("Time to first request with {}: median {} ms of {}", variant, median, runs);
+            results.put(variant, Map.of("medianMillis", median, "runMillis", runs));
+        });
+
+        Files.createDirectories(RESULTS.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(RESULTS.toFile(), results);
+
+    }
+
+    private long timeToFirstRequest(Variant variant, String classpath, String url) throws Exception {
+
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.getJvmOptions());
+        command.addAll(List.of(
+                "-cp", classpath,
+                SampleGatewayServiceApplication.class.getName(),
+                "--spring.profiles.active=" + variant.getProfiles(),
+                "--server.port=" + port,
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=root",
+                "--spring.datasource.password="));
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/gateway?size=1&page=0"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        long deadline = start + TIMEOUT.toNanos();
+
+        Process process = builder.start();
+
+        try {
+
+            while (System.nanoTime() < deadline) {
+
+                assertThat(process.isAlive()).as("application started with %s is running", variant.getName()).isTrue();
+
+                try {
+
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+                    assertThat(response.statusCode()).as("first response with %s", variant.getName()).isEqualTo(200);
+
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (ConnectException e) {
+                    Thread.sleep(POLL_INTERVAL.toMillis());
+                }
+            }
+
+            throw new AssertionError("No response within " + TIMEOUT + " with " + variant.getName());
+        } finally {
+            // a graceful stop, the training run writes the archive on exit
+            process.destroy();
+
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+
+    }
+
+    /**
+     * The classes jar and the dependencies of target/cds, the JVM only archives classes loaded from jars
+     * */
+    private static String cdsClasspath() throws IOException {
+
+        try (Stream<Path> files = Files.list(CDS_LAYOUT)) {
+
+            Path classesJar = files
+                    .filter(file -> file.getFileName().toString().endsWith("-classes.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No classes jar in " + CDS_LAYOUT));
+
+            return classesJar + File.pathSeparator + CDS_LAYOUT.resolve(Path.of("dependencies", "BOOT-INF", "lib", "*"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Value
+    private static class Variant {
+
+        String name;
+
+        String profiles;
+
+        List<String> jvmOptions;
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.musala.test.samplegatewayservice.mappers;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatewayMapperTest {
+
+    private final PeripheralMapper peripheralMapper = new PeripheralMapperImpl();
+
+    private final GatewayMapper gatewayMapper = new GatewayMapperImpl(peripheralMapper);
+
+    @Test
+    @DisplayName("Given Gateway with Peripherals, When map to DTO, Maps nested Peripherals with Status name")
+    void givenGatewayWithPeripherals_WhenToDto_MapsNestedPeripheralsWithStatusName() {
+
+        String gatewayId = UUID.randomUUID().toString();
+
+        Peripheral peripheral = new Peripheral();
+        peripheral.setId(1L);
+        peripheral.setName("P1");
+        peripheral.setVendor("Vendor");
+        peripheral.setGatewayId(gatewayId);
+        peripheral.setStatus(PeripheralStatus.OFFLINE);
+
+        Gateway gateway = new Gateway(gatewayId, "Valid Name", "192.168.0.1", List.of(peripheral));
+
+        GatewayResponseDTO dto = gatewayMapper.toDto(gateway);
+
+        assertThat(dto.getId()).isEqualTo(gatewayId);
+        assertThat(dto.getName()).isEqualTo("Valid Name");
+        assertThat(dto.getIpV4Address()).isEqualTo("192.168.0.1");
+        assertThat(dto.getPeripherals()).hasSize(1);
+        assertThat(dto.getPeripherals().get(0).getId()).isEqualTo(1L);
+        assertThat(dto.getPeripherals().get(0).getGatewayId()).isEqualTo(gatewayId);
+        assertThat(dto.getPeripherals().get(0).getStatus()).isEqualTo("OFFLINE");
+
+    }
+
+    @Test
+    @DisplayName("Given Gateway without Peripherals, When map to DTO, Maps to empty Peripheral list")
+    void givenGatewayWithoutPeripherals_WhenToDto_MapsToEmptyPeripheralList() {
+
+        Gateway gateway = new Gateway(UUID.randomUUID().toString(), "Valid Name", "192.168.0.1", null);
+
+        GatewayResponseDTO dto = gatewayMapper.toDto(gateway);
+
+        assertThat(dto.getPeripherals()).isEmpty();
+
+    }
+
+    @Test
+    @DisplayName("Given CreateGatewayDTO, When map to entity, Leaves ID to the generator")
+    void givenCreateGatewayDto_WhenToEntity_LeavesIdToTheGenerator() {
+
+        Gateway gateway = gatewayMapper.toEntity(new CreateGatewayDTO("Valid Name", "192.168.0.1"));
+
+        assertThat(gateway.getId()).isNull();
+        assertThat(gateway.getName()).isEqualTo("Valid Name");
+        assertThat(gateway.getIpV4Address()).isEqualTo("192.168.0.1");
+
+    }
+
+    @Test
+    @DisplayName("Given CreatePeripheralRequestDTO, When map to entity, Maps Status by name")
+    void givenCreatePeripheralRequestDto_WhenToEntity_MapsStatusByName() {
+
+        CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+        requestDTO.setGatewayId(UUID.randomUUID().toString());
+        requestDTO.setName("P1");
+        requestDTO.setVendor("Vendor");
+        requestDTO.setStatus("ONLINE");
+
+        Peripheral peripheral = peripheralMapper.toEntity(requestDTO);
+
+        assertThat(peripheral.getId()).isNull();
+        assertThat(peripheral.getGatewayId()).isEqualTo(requestDTO.getGatewayId());
+        assertThat(peripheral.getStatus()).isEqualTo(PeripheralStatus.ONLINE);
+
+        requestDTO.setStatus("UNKNOWN");
+
+        assertThrows(IllegalArgumentException.class, () -> peripheralMapper.toEntity(requestDTO));
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.musala.test.samplegatewayservice.models.ids;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("Given concurrent callers, When next id, Returns unique IDs")
+    void givenConcurrentCallers_WhenNextId_ReturnsUniqueIds() throws Exception {
+
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+
+        int threads = 8;
+        int idsPerThread = 20_000;
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(threads * idsPerThread);
+        assertThat(ids).allMatch(id -> id > 0);
+
+    }
+
+    @Test
+    @DisplayName("Given fixed clock, When next id, Packs timestamp, node ID and sequence")
+    void givenFixedClock_WhenNextId_PacksTimestampNodeIdAndSequence() {
+
+        long millis = SnowflakeIdGenerator.EPOCH_MILLIS + 1000;
+
+        SnowflakeIdGenerator generator = new FixedClockGenerator(3, millis);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertThat(first >>> (SnowflakeIdGenerator.NODE_ID_BITS + SnowflakeIdGenerator.SEQUENCE_BITS)).isEqualTo(1000);
+        assertThat((first >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(3);
+        assertThat(second).isEqualTo(first + 1);
+
+    }
+
+    @Test
+    @DisplayName("Given clock moving backwards, When next id, Keeps increasing")
+    void givenClockMovingBackwards_WhenNextId_KeepsIncreasing() {
+
+        FixedClockGenerator generator = new FixedClockGenerator(1, SnowflakeIdGenerator.EPOCH_MILLIS + 5000);
+
+        long before = generator.nextId();
+
+        generator.millis = SnowflakeIdGenerator.EPOCH_MILLIS + 4000;
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+
+    }
+
+    @Test
+    @DisplayName("Given node ID out of range, When create generator, Throws Exception")
+    void givenNodeIdOutOfRange_WhenCreateGenerator_ThrowsException() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+
+    }
+
+    @Test
+    @DisplayName("Given strategy names as configured, When parse strategy, Returns strategy")
+    void givenStrategyNamesAsConfigured_WhenParseStrategy_ReturnsStrategy() {
+
+        assertThat(PeripheralIdStrategy.of("sequence")).isEqualTo(PeripheralIdStrategy.SEQUENCE);
+        assertThat(PeripheralIdStrategy.of("pooled-lo")).isEqualTo(PeripheralIdStrategy.POOLED_LO);
+        assertThat(PeripheralIdStrategy.of("SNOWFLAKE")).isEqualTo(PeripheralIdStrategy.SNOWFLAKE);
+
+    }
+
+    private static class FixedClockGenerator extends SnowflakeIdGenerator {
+
+        private long millis;
+
+        FixedClockGenerator(long nodeId, long millis) {
+            super(nodeId);
+            this.millis = millis;
+        }
+
+        @Override
+        protected long currentMillis() {
+            return millis;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.musala.test.samplegatewayservice.models.types;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+import org.apache.commons.validator.routines.InetAddressValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IpV4AddressesTest {
+
+    private static final InetAddressValidator REFERENCE = InetAddressValidator.getInstance();
+
+    @Property(tries = 10_000)
+    @Label("Given strings of digits, dots and other characters, When validated, Agrees with commons-validator")
+    void givenStringsOfDigitsDotsAndOtherCharacters_WhenValidated_AgreesWithCommonsValidator(
+            @ForAll("addressLikeStrings") String value) {
+
+        assertThat(IpV4Addresses.isValid(value)).isEqualTo(REFERENCE.isValidInet4Address(value));
+
+    }
+
+    @Property(tries = 10_000)
+    @Label("Given dotted quads with out of range and zero padded octets, When validated, Agrees with commons-validator")
+    void givenDottedQuadsWithOutOfRangeAndZeroPaddedOctets_WhenValidated_AgreesWithCommonsValidator(
+            @ForAll("nearlyValidAddresses") String value) {
+
+        assertThat(IpV4Addresses.isValid(value)).isEqualTo(REFERENCE.isValidInet4Address(value));
+
+    }
+
+    @Property
+    @Label("Given octets, When parsed, Returns them packed most significant first")
+    void givenOctets_WhenParsed_ReturnsThemPackedMostSignificantFirst(@ForAll @IntRange(max = 255) int a,
+                                                                      @ForAll @IntRange(max = 255) int b,
+                                                                      @ForAll @IntRange(max = 255) int c,
+                                                                      @ForAll @IntRange(max = 255) int d) {
+
+        int address = IpV4Addresses.parse(a + "." + b + "." + c + "." + d);
+
+        assertThat(address).isEqualTo(a << 24 | b << 16 | c << 8 | d);
+
+    }
+
+    @Property
+    @Label("Given any address, When formatted and parsed back, Returns the same address")
+    void givenAnyAddress_WhenFormattedAndParsedBack_ReturnsSameAddress(@ForAll int address) {
+
+        String formatted = IpV4Addresses.toString(address);
+
+        assertThat(REFERENCE.isValidInet4Address(formatted)).isTrue();
+        assertThat(IpV4Addresses.parse(formatted)).isEqualTo(address);
+
+    }
+
+    @Test
+    @DisplayName("Given boundary values, When validated, Accepts only dotted quads")
+    void givenBoundaryValues_WhenValidated_AcceptsOnlyDottedQuads() {
+
+        assertThat(IpV4Addresses.isValid("0.0.0.0")).isTrue();
+        assertThat(IpV4Addresses.isValid("255.255.255.255")).isTrue();
+
+        assertThat(IpV4Addresses.isValid(null)).isFalse();
+        assertThat(IpV4Addresses.isValid("")).isFalse();
+        assertThat(IpV4Addresses.isValid("10.0.0")).isFalse();
+        assertThat(IpV4Addresses.isValid("10.0.0.1.")).isFalse();
+        assertThat(IpV4Addresses.isValid("10..0.1")).isFalse();
+        assertThat(IpV4Addresses.isValid("10.0.0.01")).isFalse();
+        assertThat(IpV4Addresses.isValid("256.0.0.1")).isFalse();
+        assertThat(IpV4Addresses.isValid("::ffff:10.0.0.1")).isFalse();
+        assertThat(IpV4Addresses.isValid("2001:db8::1")).isFalse();
+
+        assertThrows(IllegalArgumentException.class, () -> IpV4Addresses.parse("10.0.0"));
+        assertThrows(IllegalArgumentException.class, () -> IpV4Addresses.parse(null));
+
+    }
+
+    @Test
+    @DisplayName("Given addresses above 127.255.255.255, When parsed, Keep their unsigned order")
+    void givenAddressesAbove127_WhenParsed_KeepTheirUnsignedOrder() {
+
+        int low = IpV4Addresses.parse("10.0.0.1");
+        int high = IpV4Addresses.parse("192.168.0.1");
+
+        assertThat(Integer.compareUnsigned(low, high)).isNegative();
+        assertThat(Integer.toUnsignedLong(high)).isEqualTo(3232235521L);
+
+    }
+
+    @Provide
+    Arbitrary<String> addressLikeStrings() {
+        return Arbitraries.strings().withCharRange('0', '9').withChars('.', 'a', ' ').ofMaxLength(17);
+    }
+
+    @Provide
+    Arbitrary<String> nearlyValidAddresses() {
+
+        Arbitrary<String> octet = Arbitraries.oneOf(
+                Arbitraries.integers().between(0, 300).map(String::valueOf),
+                Arbitraries.strings().numeric().ofMinLength(1).ofMaxLength(4));
+
+        return Combinators.combine(octet, octet, octet, octet)
+                .as((a, b, c, d) -> a + "." + b + "." + c + "." + d);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.musala.test.samplegatewayservice.models.types;
+
+import com.musala.test.samplegatewayservice.models.ids.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UuidBytesTest {
+
+    @Test
+    @DisplayName("Given canonical UUID, When converted to bytes and back, Returns the same lower case UUID")
+    void givenCanonicalUuid_WhenConvertedToBytesAndBack_ReturnsSameLowerCaseUuid() {
+
+        String uuid = UUID.randomUUID().toString();
+
+        byte[] bytes = UuidBytes.toBytes(uuid.toUpperCase());
+
+        assertThat(bytes).hasSize(UuidBytes.LENGTH);
+        assertThat(UuidBytes.toString(bytes)).isEqualTo(uuid);
+
+    }
+
+    @Test
+    @DisplayName("Given canonical UUID, When converted to bytes, Matches the UNHEX of the hex digits used by the migration")
+    void givenCanonicalUuid_WhenConvertedToBytes_MatchesUnhexOfHexDigits() {
+
+        byte[] bytes = UuidBytes.toBytes("00112233-4455-6677-8899-aabbccddeeff");
+
+        assertThat(bytes).containsExactly(0x00, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77,
+                0x88, 0x99, 0xaa, 0xbb, 0xcc, 0xdd, 0xee, 0xff);
+
+    }
+
+    @Test
+    @DisplayName("Given non canonical values, When validated, Are rejected")
+    void givenNonCanonicalValues_WhenValidated_AreRejected() {
+
+        assertThat(UuidBytes.isValid(null)).isFalse();
+        assertThat(UuidBytes.isValid("")).isFalse();
+        assertThat(UuidBytes.isValid("1-1-1-1-1")).isFalse();
+        assertThat(UuidBytes.isValid("00112233-4455-6677-8899-aabbccddeefg")).isFalse();
+        assertThat(UuidBytes.isValid("00112233x4455-6677-8899-aabbccddeeff")).isFalse();
+
+        assertThrows(IllegalArgumentException.class, () -> UuidBytes.toBytes("not-a-uuid"));
+
+    }
+
+    @Test
+    @DisplayName("Given IDs generated over time, When compared as stored bytes, Are in generation order")
+    void givenIdsGeneratedOverTime_WhenComparedAsStoredBytes_AreInGenerationOrder() throws Exception {
+
+        UUID first = TimeOrderedUuidGenerator.nextUuid();
+        Thread.sleep(2);
+        UUID second = TimeOrderedUuidGenerator.nextUuid();
+
+        assertThat(first.version()).isEqualTo(7);
+        assertThat(first.variant()).isEqualTo(2);
+
+        byte[] firstBytes = UuidBytes.toBytes(first.toString());
+        byte[] secondBytes = UuidBytes.toBytes(second.toString());
+
+        assertThat(Arrays.compareUnsigned(firstBytes, secondBytes)).isNegative();
+
+    }
+
+}
@@ -0,0 +1,369 @@
+package com.musala.test.samplegatewayservice.repo;
+
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusRequestDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
+import com.musala.test.samplegatewayservice.models.ids.TimeOrderedUuidGenerator;
+import com.musala.test.samplegatewayservice.models.types.UuidBytes;
+import com.musala.test.samplegatewayservice.services.CountMode;
+import com.musala.test.samplegatewayservice.services.GatewayCursor;
+import com.musala.test.samplegatewayservice.services.GatewayExportService;
+import com.musala.test.samplegatewayservice.services.GatewayReadService;
+import com.musala.test.samplegatewayservice.services.GatewayService;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import com.musala.test.samplegatewayservice.support.StatementRecorder;
+import com.musala.test.samplegatewayservice.support.StatementRecorder.RecordedStatement;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the service read and write paths against a seeded local database, EXPLAINs every statement they issue
+ * and fails when one of them scans a whole table or sorts rows outside of an index
+ * */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    /**
+     * Enough rows for the optimizer to prefer an ordered index over sorting the table, with a couple of thousand it reads
+     * and sorts all of them even when only one page is requested
+     * */
+    private static final int SEEDED_GATEWAYS = 20_000;
+
+    private static final int PERIPHERALS_PER_SEEDED_GATEWAY = 3;
+
+    private static final long SEEDED_PERIPHERAL_ID_OFFSET = 1_000_000_000L;
+
+    /**
+     * Single row table read and updated by the sequence style ID generator, a scan of it is expected
+     * */
+    private static final Set<String> FULL_SCAN_ALLOWED_TABLES = Set.of("peripheral_id_sequence");
+
+    /**
+     * Materialized derived tables hold one already limited page, reading all of it is the point
+     * */
+    private static final String DERIVED_TABLE_PREFIX = "<derived";
+
+    private static final StatementRecorder STATEMENT_RECORDER = new StatementRecorder();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? STATEMENT_RECORDER.wrap((DataSource) bean) : bean;
+                }
+            };
+        }
+
+    }
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    @Autowired
+    private GatewayExportService gatewayExportService;
+
+    @Autowired
+    private GatewayReadService gatewayReadService;
+
+    @Autowired
+    private GatewayRepo gatewayRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> seededGatewayIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+
+        LocalDateTime createdAt = LocalDateTime.of(2021, 7, 12, 0, 0);
+
+        List<Object[]> gateways = new ArrayList<>();
+        List<Object[]> peripherals = new ArrayList<>();
+
+        for (int i = 0; i < SEEDED_GATEWAYS; i++) {
+
+            String id = TimeOrderedUuidGenerator.nextUuid().toString();
+            Timestamp timestamp = Timestamp.valueOf(createdAt.plusSeconds(i));
+
+            seededGatewayIds.add(id);
+            gateways.add(new Object[]{UuidBytes.toBytes(id), timestamp, timestamp, "Seeded " + i, seededIpV4Address(i)});
+
+            for (int j = 0; j < PERIPHERALS_PER_SEEDED_GATEWAY; j++) {
+                long peripheralId = SEEDED_PERIPHERAL_ID_OFFSET + (long) i * PERIPHERALS_PER_SEEDED_GATEWAY + j;
+                peripherals.add(new Object[]{peripheralId, UuidBytes.toBytes(id), timestamp, timestamp, "P", "ONLINE", "Vendor"});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO gateways (id, created_at, updated_at, name, ip_v4_address, peripheral_count) " +
+                "VALUES (?, ?, ?, ?, ?, " + PERIPHERALS_PER_SEEDED_GATEWAY + ")", gateways);
+        jdbcTemplate.batchUpdate("INSERT INTO peripherals (id, gateway_id, created_at, updated_at, name, status, vendor) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", peripherals);
+
+        jdbcTemplate.execute("ANALYZE TABLE gateways, peripherals");
+
+    }
+
+    @BeforeEach
+    void startRecording() {
+        STATEMENT_RECORDER.clear();
+    }
+
+    @AfterEach
+    void stopRecording() {
+        STATEMENT_RECORDER.clear();
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When get gateways with exact count, Page and count are index backed")
+    void givenSeededGateways_WhenGetGatewaysWithExactCount_PageAndCountAreIndexBacked() {
+
+        gatewayService.getGateways(10, 0, CountMode.EXACT);
+        gatewayService.getGateways(10, 5, CountMode.EXACT);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When get gateways without count, Slice is index backed")
+    void givenSeededGateways_WhenGetGatewaysWithoutCount_SliceIsIndexBacked() {
+
+        gatewayService.getGateways(10, 5, CountMode.NONE);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When get gateways by cursor, First and next pages are index backed")
+    void givenSeededGateways_WhenGetGatewaysByCursor_FirstAndNextPagesAreIndexBacked() {
+
+        Slice<Gateway> firstPage = gatewayService.getGatewaysAfter(10, null);
+        assertThat(firstPage.hasNext()).isTrue();
+
+        String cursor = GatewayCursor.of(firstPage.getContent().get(firstPage.getNumberOfElements() - 1)).encode();
+        gatewayService.getGatewaysAfter(10, cursor);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateway, When get gateway, Gateway and peripherals lookups are index backed")
+    void givenSeededGateway_WhenGetGateway_GatewayAndPeripheralsLookupsAreIndexBacked() {
+
+        String gatewayId = seededGatewayIds.get(SEEDED_GATEWAYS / 2);
+
+        assertThat(gatewayService.getGateway(gatewayId).getId()).isEqualTo(gatewayId);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateway, When create and delete peripheral, Slot updates and lookups are index backed")
+    void givenSeededGateway_WhenCreateAndDeletePeripheral_SlotUpdatesAndLookupsAreIndexBacked() {
+
+        CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+        requestDTO.setGatewayId(seededGatewayIds.get(SEEDED_GATEWAYS / 3));
+        requestDTO.setName("P");
+        requestDTO.setVendor("Vendor");
+        requestDTO.setStatus("ONLINE");
+
+        Peripheral peripheral = gatewayService.createGatewayPeripheral(requestDTO);
+        gatewayService.deletePeripheral(peripheral.getId());
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded peripherals, When update peripheral status in bulk, Updates by ids and by gateway are index backed")
+    void givenSeededPeripherals_WhenUpdatePeripheralStatusInBulk_UpdatesByIdsAndByGatewayAreIndexBacked() {
+
+        long firstPeripheralId = SEEDED_PERIPHERAL_ID_OFFSET + 10L * PERIPHERALS_PER_SEEDED_GATEWAY;
+
+        gatewayService.updatePeripheralStatus(new UpdatePeripheralStatusRequestDTO(
+                List.of(firstPeripheralId, firstPeripheralId + 1, firstPeripheralId + 2), null, PeripheralStatus.OFFLINE));
+        gatewayService.updatePeripheralStatus(new UpdatePeripheralStatusRequestDTO(
+                null, seededGatewayIds.get(SEEDED_GATEWAYS / 4), PeripheralStatus.OFFLINE));
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When export gateways, Export query reads in index order")
+    void givenSeededGateways_WhenExportGateways_ExportQueryReadsInIndexOrder() throws Exception {
+
+        assertThat(gatewayExportService.exportGateways(OutputStream.nullOutputStream())).isGreaterThanOrEqualTo(SEEDED_GATEWAYS);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When get gateway views, Single statement pages and lookup are index backed")
+    void givenSeededGateways_WhenGetGatewayViews_SingleStatementPagesAndLookupAreIndexBacked() {
+
+        gatewayReadService.getGateways(10, 5, CountMode.EXACT);
+        gatewayReadService.getGateways(10, 5, CountMode.NONE);
+        gatewayReadService.getGateway(seededGatewayIds.get(SEEDED_GATEWAYS / 5));
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When read validators, Version lookups are index backed")
+    void givenSeededGateways_WhenReadValidators_VersionLookupsAreIndexBacked() {
+
+        assertThat(gatewayService.getGatewayVersion(seededGatewayIds.get(SEEDED_GATEWAYS / 6))).isPresent();
+        gatewayService.getGatewaysTag(10, 5, CountMode.NONE);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When get gateways by subnet and by address, Address lookups are index range scans")
+    void givenSeededGateways_WhenGetGatewaysBySubnetAndByAddress_AddressLookupsAreIndexRangeScans() {
+
+        Slice<Gateway> subnet = gatewayService.getGatewaysInCidr("10.0.3.0/24", 300, 0);
+        assertThat(subnet.getContent()).hasSize(256)
+                .allSatisfy(gateway -> assertThat(gateway.getIpV4Address()).startsWith("10.0.3."));
+        assertThat(subnet.getContent().get(0).getIpV4Address()).isEqualTo("10.0.3.0");
+        assertThat(subnet.hasNext()).isFalse();
+
+        Slice<Gateway> secondSlice = gatewayService.getGatewaysInCidr("10.0.3.0/24", 100, 1);
+        assertThat(secondSlice.getContent().get(0).getIpV4Address()).isEqualTo("10.0.3.100");
+        assertThat(secondSlice.hasNext()).isTrue();
+
+        Slice<Gateway> address = gatewayService.getGatewaysByIpV4Address(seededIpV4Address(1234), 10, 0);
+        assertThat(address.getContent()).extracting(Gateway::getId).containsExactly(seededGatewayIds.get(1234));
+        assertThat(address.getContent().get(0).getPeripherals()).hasSize(PERIPHERALS_PER_SEEDED_GATEWAY);
+
+        assertIndexBackedPlans();
+
+    }
+
+    @Test
+    @DisplayName("Given seeded gateways, When count gateways, Count reads an index instead of the table")
+    void givenSeededGateways_WhenCountGateways_CountReadsAnIndex() {
+
+        gatewayRepo.count();
+
+        assertIndexBackedPlans();
+
+    }
+
+    /**
+     * Distinct addresses 10.0.0.0 upwards, 256 seeded gateways per /24
+     * */
+    private static String seededIpV4Address(int i) {
+        return "10.0." + (i / 256) + "." + (i % 256);
+    }
+
+    private void assertIndexBackedPlans() {
+
+        List<RecordedStatement> statements = STATEMENT_RECORDER.getStatements().stream()
+                .filter(statement -> isExplainable(statement.getSql()))
+                .collect(Collectors.toList());
+
+        assertThat(statements).as("statements issued by the exercised path").isNotEmpty();
+
+        for (RecordedStatement statement : statements) {
+
+            for (Map<String, Object> planRow : explain(statement)) {
+
+                String table = String.valueOf(planRow.get("table"));
+                String type = String.valueOf(planRow.get("type"));
+                String extra = String.valueOf(planRow.get("Extra"));
+
+                if (!FULL_SCAN_ALLOWED_TABLES.contains(table) && !table.startsWith(DERIVED_TABLE_PREFIX)) {
+                    assertThat(type)
+                            .as("access type on %s for%n%s%nplan %s", table, statement.getSql(), planRow)
+                            .isNotEqualToIgnoringCase("ALL");
+                }
+
+                assertThat(extra)
+                        .as("extra on %s for%n%s%nplan %s", table, statement.getSql(), planRow)
+                        .doesNotContain("Using filesort");
+            }
+        }
+
+    }
+
+    private List<Map<String, Object>> explain(RecordedStatement statement) {
+
+        return jdbcTemplate.query(connection -> {
+
+            PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getSql());
+
+            for (ParameterSetOperation parameter : statement.getParameters()) {
+
+                Object[] args = parameter.getArgs();
+                int index = (Integer) args[0];
+
+                if ("setNull".equals(parameter.getMethod().getName())) {
+                    explain.setNull(index, (Integer) args[1]);
+                } else {
+                    explain.setObject(index, args[1]);
+                }
+            }
+
+            return explain;
+        }, new ColumnMapRowMapper());
+
+    }
+
+    private static boolean isExplainable(String sql) {
+
+        String normalized = sql.trim().toLowerCase(Locale.ROOT);
+
+        return normalized.startsWith("select") || normalized.startsWith("update") || normalized.startsWith("delete");
+    }
+
+}
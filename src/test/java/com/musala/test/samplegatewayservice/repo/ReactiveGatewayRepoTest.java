@@ -0,0 +1,109 @@
+package com.musala.test.samplegatewayservice.repo;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.services.GatewayService;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads through R2DBC what the JPA write path stored, on the same schema
+ * */
+@SpringBootTest
+class ReactiveGatewayRepoTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private ReactiveGatewayRepo reactiveGatewayRepo;
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    @Test
+    @DisplayName("Given gateway with peripherals stored through JPA, When find gateway reactively, Returns gateway with its peripherals")
+    void givenGatewayWithPeripheralsStoredThroughJpa_WhenFindGatewayReactively_ReturnsGatewayWithPeripherals() {
+
+        Gateway gateway = createGatewayWithPeripherals("Reactive 1", 2);
+
+        GatewayResponseDTO found = reactiveGatewayRepo.findGateway(gateway.getId()).block();
+
+        assertThat(found).isNotNull();
+        assertThat(found.getId()).isEqualTo(gateway.getId());
+        assertThat(found.getName()).isEqualTo("Reactive 1");
+        assertThat(found.getPeripherals())
+                .extracting(PeripheralResponseDTO::getGatewayId)
+                .containsExactly(gateway.getId(), gateway.getId());
+
+    }
+
+    @Test
+    @DisplayName("Given unknown or malformed gateway id, When find gateway reactively, Completes empty")
+    void givenUnknownOrMalformedGatewayId_WhenFindGatewayReactively_CompletesEmpty() {
+
+        assertThat(reactiveGatewayRepo.findGateway(UUID.randomUUID().toString()).blockOptional()).isEmpty();
+        assertThat(reactiveGatewayRepo.findGateway("not-a-uuid").blockOptional()).isEmpty();
+
+    }
+
+    @Test
+    @DisplayName("Given more gateways than one peripheral batch, When find gateways reactively, Emits them in listing order with their peripherals")
+    void givenMoreGatewaysThanOnePeripheralBatch_WhenFindGatewaysReactively_EmitsInListingOrderWithPeripherals() {
+
+        Gateway withPeripherals = createGatewayWithPeripherals("Reactive 2", 3);
+
+        for (int i = 0; i < ReactiveGatewayRepo.PERIPHERAL_BATCH_SIZE; i++) {
+            gatewayService.createGateway(new CreateGatewayDTO("Reactive Filler " + i, "10.4.1.1"));
+        }
+
+        List<GatewayResponseDTO> reactive = reactiveGatewayRepo.findGateways(100_000, 0).collectList().block();
+
+        List<String> blockingOrder = gatewayService.getGateways(100_000, 0).getContent().stream()
+                .map(Gateway::getId)
+                .collect(Collectors.toList());
+
+        assertThat(reactive).extracting(GatewayResponseDTO::getId).containsExactlyElementsOf(blockingOrder);
+
+        GatewayResponseDTO reactiveWithPeripherals = reactive.stream()
+                .filter(gateway -> gateway.getId().equals(withPeripherals.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(reactiveWithPeripherals.getPeripherals()).hasSize(3);
+
+    }
+
+    private Gateway createGatewayWithPeripherals(String name, int peripherals) {
+
+        Gateway gateway = gatewayService.createGateway(new CreateGatewayDTO(name, "10.4.0.1"));
+
+        for (int i = 0; i < peripherals; i++) {
+            CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+            requestDTO.setGatewayId(gateway.getId());
+            requestDTO.setName("P" + i);
+            requestDTO.setVendor("Vendor");
+            requestDTO.setStatus("ONLINE");
+            gatewayService.createGatewayPeripheral(requestDTO);
+        }
+
+        return gateway;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusRequestDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.models.PeripheralStatus;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every change to a gateway's peripherals has to move the gateway's version, or clients would keep a stale copy after a 304.
+ * The listing's tag has to be the same whether it is read on its own or built from a loaded page.
+ * */
+@SpringBootTest
+class GatewayConditionalRequestTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    @Test
+    @DisplayName("Given gateway, When its peripherals are created, updated and deleted, Each change moves the gateway version")
+    void givenGateway_WhenPeripheralsCreatedUpdatedAndDeleted_EachChangeMovesGatewayVersion() {
+
+        Gateway gateway = gatewayService.createGateway(new CreateGatewayDTO("Versioned", "10.7.0.1"));
+
+        LocalDateTime created = version(gateway.getId());
+
+        CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+        requestDTO.setGatewayId(gateway.getId());
+        requestDTO.setName("P");
+        requestDTO.setVendor("Vendor");
+        requestDTO.setStatus("ONLINE");
+
+        Peripheral peripheral = gatewayService.createGatewayPeripheral(requestDTO);
+
+        LocalDateTime peripheralCreated = version(gateway.getId());
+        assertThat(peripheralCreated).isAfter(created);
+
+        gatewayService.updatePeripheralStatus(new UpdatePeripheralStatusRequestDTO(null, gateway.getId(), PeripheralStatus.OFFLINE));
+
+        LocalDateTime statusUpdated = version(gateway.getId());
+        assertThat(statusUpdated).isAfter(peripheralCreated);
+
+        // already offline, nothing changes
+        gatewayService.updatePeripheralStatus(new UpdatePeripheralStatusRequestDTO(null, gateway.getId(), PeripheralStatus.OFFLINE));
+        assertThat(version(gateway.getId())).isEqualTo(statusUpdated);
+
+        gatewayService.deletePeripheral(peripheral.getId());
+
+        assertThat(version(gateway.getId())).isAfter(statusUpdated);
+
+    }
+
+    @Test
+    @DisplayName("Given unknown or malformed gateway id, When get gateway version, Returns empty")
+    void givenUnknownOrMalformedGatewayId_WhenGetGatewayVersion_ReturnsEmpty() {
+
+        assertThat(gatewayService.getGatewayVersion(UUID.randomUUID().toString())).isEmpty();
+        assertThat(gatewayService.getGatewayVersion("not-a-uuid")).isEmpty();
+
+    }
+
+    @Test
+    @DisplayName("Given listing, When a gateway on the page changes, Listing tag changes, Otherwise stays the same")
+    void givenListing_WhenGatewayOnPageChanges_ListingTagChanges_OtherwiseStaysTheSame() {
+
+        Gateway gateway = gatewayService.createGateway(new CreateGatewayDTO("Listed", "10.7.0.2"));
+
+        int lastPage = (int) (gatewayService.getGateways(1, 0).getTotalElements() - 1);
+
+        String tag = gatewayService.getGatewaysTag(1, lastPage, CountMode.NONE);
+
+        assertThat(gatewayService.getGatewaysTag(1, lastPage, CountMode.NONE)).isEqualTo(tag);
+
+        CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+        requestDTO.setGatewayId(gateway.getId());
+        requestDTO.setName("P");
+        requestDTO.setVendor("Vendor");
+        requestDTO.setStatus("ONLINE");
+
+        gatewayService.createGatewayPeripheral(requestDTO);
+
+        assertThat(gatewayService.getGatewaysTag(1, lastPage, CountMode.NONE)).isNotEqualTo(tag);
+
+    }
+
+    @Test
+    @DisplayName("Given listing, When tag is built from the loaded page, Equals the listing tag read without loading it")
+    void givenListing_WhenTagBuiltFromLoadedPage_EqualsListingTagReadWithoutLoadingIt() {
+
+        gatewayService.createGateway(new CreateGatewayDTO("Tagged", "10.7.0.3"));
+
+        for (CountMode countMode : CountMode.values()) {
+
+            Slice<Gateway> gateways = gatewayService.getGateways(2, 0, countMode);
+
+            assertThat(GatewayListingTag.of(gateways, 2, 0, countMode))
+                    .isEqualTo(gatewayService.getGatewaysTag(2, 0, countMode));
+        }
+
+    }
+
+    private LocalDateTime version(String gatewayId) {
+        return gatewayService.getGatewayVersion(gatewayId).orElseThrow();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.repo.GatewayRepo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GatewayCountProviderTest {
+
+    private final GatewayRepo gatewayRepo = mock(GatewayRepo.class);
+
+    private final GatewayCountProvider gatewayCountProvider = new GatewayCountProvider(gatewayRepo);
+
+    @Test
+    @DisplayName("Given no count yet, When get approximate count, Returns count of the database")
+    void givenNoCountYet_WhenGetApproximateCount_ReturnsCountOfDatabase() {
+
+        when(gatewayRepo.count()).thenReturn(7L);
+
+        gatewayCountProvider.onGatewaysCreated(3);
+
+        assertThat(gatewayCountProvider.getApproximateCount()).isEqualTo(7);
+
+    }
+
+    @Test
+    @DisplayName("Given reconciled count, When gateways created, Returns count with creations")
+    void givenReconciledCount_WhenGatewaysCreated_ReturnsCountWithCreations() {
+
+        when(gatewayRepo.count()).thenReturn(7L);
+        gatewayCountProvider.reconcile();
+
+        gatewayCountProvider.onGatewaysCreated(2);
+
+        assertThat(gatewayCountProvider.getApproximateCount()).isEqualTo(9);
+
+    }
+
+    @Test
+    @DisplayName("Given gateways created while the database counts, When reconcile, Keeps those creations")
+    void givenGatewaysCreatedWhileDatabaseCounts_WhenReconcile_KeepsThoseCreations() {
+
+        when(gatewayRepo.count()).thenReturn(7L);
+        gatewayCountProvider.reconcile();
+
+        when(gatewayRepo.count()).thenAnswer(invocation -> {
+            gatewayCountProvider.onGatewaysCreated(2);
+            return 10L;
+        });
+
+        assertThat(gatewayCountProvider.reconcile()).isEqualTo(12);
+        assertThat(gatewayCountProvider.getApproximateCount()).isEqualTo(12);
+
+    }
+
+}
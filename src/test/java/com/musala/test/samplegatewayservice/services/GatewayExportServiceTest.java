@@ -0,0 +1,95 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralResponseDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GatewayExportServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private GatewayExportService gatewayExportService;
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Given gateways with and without peripherals, When export gateways, Writes one line per gateway with its peripherals merged in")
+    void givenGatewaysWithAndWithoutPeripherals_WhenExportGateways_WritesOneLinePerGatewayWithPeripheralsMergedIn() throws Exception {
+
+        Gateway withPeripherals = gatewayService.createGateway(new CreateGatewayDTO("Export 1", "10.3.0.1"));
+        Gateway withoutPeripherals = gatewayService.createGateway(new CreateGatewayDTO("Export 2", "10.3.0.2"));
+
+        for (int i = 0; i < 3; i++) {
+            CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+            requestDTO.setGatewayId(withPeripherals.getId());
+            requestDTO.setName("P" + i);
+            requestDTO.setVendor("Vendor");
+            requestDTO.setStatus("ONLINE");
+            gatewayService.createGatewayPeripheral(requestDTO);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = gatewayExportService.exportGateways(out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize((int) written);
+
+        List<GatewayResponseDTO> exported = new ArrayList<>();
+        for (String line : lines) {
+            exported.add(objectMapper.readValue(line, GatewayResponseDTO.class));
+        }
+
+        Map<String, GatewayResponseDTO> exportedById = exported.stream()
+                .collect(Collectors.toMap(GatewayResponseDTO::getId, Function.identity()));
+
+        // every gateway is written exactly once, in ID order
+        assertThat(exportedById).hasSize(exported.size());
+        assertThat(exported).extracting(GatewayResponseDTO::getId).isSorted();
+
+        GatewayResponseDTO exportedWithPeripherals = exportedById.get(withPeripherals.getId());
+        assertThat(exportedWithPeripherals.getName()).isEqualTo("Export 1");
+        assertThat(exportedWithPeripherals.getPeripherals())
+                .extracting(PeripheralResponseDTO::getName)
+                .containsExactlyInAnyOrder("P0", "P1", "P2");
+        assertThat(exportedWithPeripherals.getPeripherals())
+                .extracting(PeripheralResponseDTO::getGatewayId)
+                .containsOnly(withPeripherals.getId());
+
+        GatewayResponseDTO exportedWithoutPeripherals = exportedById.get(withoutPeripherals.getId());
+        assertThat(exportedWithoutPeripherals.getIpV4Address()).isEqualTo("10.3.0.2");
+        assertThat(exportedWithoutPeripherals.getPeripherals()).isEmpty();
+
+    }
+
+}
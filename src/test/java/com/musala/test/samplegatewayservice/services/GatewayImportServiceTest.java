@@ -0,0 +1,137 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayImportResultDTO;
+import com.musala.test.samplegatewayservice.repo.GatewayRepo;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "gateway.import.chunk-size=2")
+class GatewayImportServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private GatewayImportService gatewayImportService;
+
+    @Autowired
+    private GatewayRepo gatewayRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Given JSON array with valid and invalid items, When import gateways, Creates valid items across chunks, Reports every item")
+    void givenJsonArrayWithValidAndInvalidItems_WhenImportGateways_CreatesValidItemsAcrossChunks_ReportsEveryItem() throws Exception {
+
+        List<CreateGatewayDTO> items = List.of(
+                new CreateGatewayDTO("Import 1", "10.1.0.1"),
+                new CreateGatewayDTO("Import 2", "10.1.0"),
+                new CreateGatewayDTO("Import 3", "10.1.0.3"),
+                new CreateGatewayDTO("Import 4", "10.1.0.4"),
+                new CreateGatewayDTO("Import 5", "10.1.0.5"));
+
+        List<GatewayImportResultDTO> results = new ArrayList<>();
+
+        long created = gatewayImportService.importGateways(
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(items)), results::add);
+
+        assertThat(created).isEqualTo(4);
+
+        results.sort(Comparator.comparingLong(GatewayImportResultDTO::getIndex));
+
+        assertThat(results).extracting(GatewayImportResultDTO::getStatus).containsExactly(
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.INVALID,
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.CREATED);
+
+        assertThat(results.get(1).getErrors()).extracting("fieldName").containsExactly("ipV4Address");
+
+        List<String> createdIds = results.stream()
+                .filter(result -> result.getStatus() == GatewayImportResultDTO.Status.CREATED)
+                .map(GatewayImportResultDTO::getId)
+                .collect(Collectors.toList());
+
+        assertThat(gatewayRepo.findAllById(createdIds)).hasSize(4);
+
+    }
+
+    @Test
+    @DisplayName("Given NDJSON body with malformed line, When import gateways, Keeps items read before it, Reports malformed item")
+    void givenNdjsonBodyWithMalformedLine_WhenImportGateways_KeepsItemsReadBeforeIt_ReportsMalformedItem() throws Exception {
+
+        String body = "{\"name\":\"Ndjson 1\",\"ipV4Address\":\"10.2.0.1\"}\n" +
+                "{\"name\":\"Ndjson 2\",\"ipV4Address\":\"10.2.0.2\"}\n" +
+                "{\"name\":\"Ndjson 3\",\"ipV4Address\":\"10.2.0.3\"}\n" +
+                "{\"name\":\"Ndjson 4\",\n";
+
+        List<GatewayImportResultDTO> results = new ArrayList<>();
+
+        long created = gatewayImportService.importGateways(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), results::add);
+
+        assertThat(created).isEqualTo(3);
+
+        results.sort(Comparator.comparingLong(GatewayImportResultDTO::getIndex));
+
+        assertThat(results).extracting(GatewayImportResultDTO::getStatus).containsExactly(
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.INVALID);
+
+        assertThat(results.get(3).getIndex()).isEqualTo(3);
+        assertThat(results.get(3).getErrors()).extracting("message").singleElement().asString()
+                .startsWith("Malformed JSON at line 5, column 1, the import stopped here");
+
+    }
+
+    @Test
+    @DisplayName("Given JSON array with well formed item that is not a gateway, When import gateways, Reports that item, Imports the others")
+    void givenJsonArrayWithWellFormedItemThatIsNotGateway_WhenImportGateways_ReportsThatItem_ImportsOthers() throws Exception {
+
+        String body = "[{\"name\":\"Mismatch 1\",\"ipV4Address\":\"10.3.0.1\"}," +
+                "{\"name\":{\"first\":\"Mismatch\"},\"ipV4Address\":\"10.3.0.2\"}," +
+                "42," +
+                "{\"name\":\"Mismatch 4\",\"ipV4Address\":\"10.3.0.4\"}]";
+
+        List<GatewayImportResultDTO> results = new ArrayList<>();
+
+        long created = gatewayImportService.importGateways(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), results::add);
+
+        assertThat(created).isEqualTo(2);
+
+        results.sort(Comparator.comparingLong(GatewayImportResultDTO::getIndex));
+
+        assertThat(results).extracting(GatewayImportResultDTO::getStatus).containsExactly(
+                GatewayImportResultDTO.Status.CREATED,
+                GatewayImportResultDTO.Status.INVALID,
+                GatewayImportResultDTO.Status.INVALID,
+                GatewayImportResultDTO.Status.CREATED);
+
+        assertThat(results.get(1).getErrors()).extracting("fieldName").containsExactly("name");
+
+    }
+
+}
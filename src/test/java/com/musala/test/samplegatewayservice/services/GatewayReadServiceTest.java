@@ -0,0 +1,152 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayView;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.PeripheralView;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GatewayReadServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private GatewayReadService gatewayReadService;
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    private Gateway gatewayWithPeripherals;
+
+    @BeforeAll
+    void createGateways() {
+
+        gatewayWithPeripherals = gatewayService.createGateway(new CreateGatewayDTO("View 0", "10.5.0.1"));
+
+        for (int i = 0; i < 3; i++) {
+            CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+            requestDTO.setGatewayId(gatewayWithPeripherals.getId());
+            requestDTO.setName("P" + i);
+            requestDTO.setVendor("Vendor");
+            requestDTO.setStatus("ONLINE");
+            gatewayService.createGatewayPeripheral(requestDTO);
+        }
+
+        for (int i = 1; i < 7; i++) {
+            gatewayService.createGateway(new CreateGatewayDTO("View " + i, "10.5.0.1"));
+        }
+
+    }
+
+    @Test
+    @DisplayName("Given gateways with peripherals, When get gateway views page by page with exact count, Returns same pages and totals as entity reads")
+    void givenGatewaysWithPeripherals_WhenGetGatewayViewsWithExactCount_ReturnsSamePagesAndTotalsAsEntityReads() {
+
+        for (int page = 0; page < 3; page++) {
+
+            Page<GatewayView> views = (Page<GatewayView>) gatewayReadService.getGateways(3, page, CountMode.EXACT);
+            Page<Gateway> entities = (Page<Gateway>) gatewayService.getGateways(3, page, CountMode.EXACT);
+
+            assertThat(views.getTotalElements()).isEqualTo(entities.getTotalElements());
+            assertThat(views.hasNext()).isEqualTo(entities.hasNext());
+            assertThat(summaries(views.getContent())).containsExactlyElementsOf(entitySummaries(entities.getContent()));
+        }
+
+    }
+
+    @Test
+    @DisplayName("Given page past the last gateway, When get gateway views with exact count, Returns empty page with total")
+    void givenPagePastLastGateway_WhenGetGatewayViewsWithExactCount_ReturnsEmptyPageWithTotal() {
+
+        Page<Gateway> firstPage = (Page<Gateway>) gatewayService.getGateways(1, 0, CountMode.EXACT);
+
+        Page<GatewayView> views = (Page<GatewayView>) gatewayReadService.getGateways(1, (int) firstPage.getTotalElements() + 5, CountMode.EXACT);
+
+        assertThat(views.getContent()).isEmpty();
+        assertThat(views.getTotalElements()).isEqualTo(firstPage.getTotalElements());
+
+    }
+
+    @Test
+    @DisplayName("Given gateways, When get gateway views without count, Returns same slice as entity reads")
+    void givenGateways_WhenGetGatewayViewsWithoutCount_ReturnsSameSliceAsEntityReads() {
+
+        Slice<GatewayView> views = gatewayReadService.getGateways(4, 1, CountMode.NONE);
+        Slice<Gateway> entities = gatewayService.getGateways(4, 1, CountMode.NONE);
+
+        assertThat(views).isNotInstanceOf(Page.class);
+        assertThat(views.hasNext()).isEqualTo(entities.hasNext());
+        assertThat(summaries(views.getContent())).containsExactlyElementsOf(entitySummaries(entities.getContent()));
+
+    }
+
+    @Test
+    @DisplayName("Given gateway with peripherals, When get gateway view, Returns gateway with its peripherals")
+    void givenGatewayWithPeripherals_WhenGetGatewayView_ReturnsGatewayWithPeripherals() {
+
+        GatewayView view = gatewayReadService.getGateway(gatewayWithPeripherals.getId());
+
+        assertThat(view.getId()).isEqualTo(gatewayWithPeripherals.getId());
+        assertThat(view.getName()).isEqualTo("View 0");
+        assertThat(view.getIpV4Address()).isEqualTo("10.5.0.1");
+        assertThat(view.getPeripherals()).extracting(PeripheralView::getName).containsExactly("P0", "P1", "P2");
+        assertThat(view.getPeripherals()).extracting(PeripheralView::getGatewayId).containsOnly(gatewayWithPeripherals.getId());
+
+    }
+
+    @Test
+    @DisplayName("Given unknown or malformed gateway id, When get gateway view, Throws EntityNotFoundException")
+    void givenUnknownOrMalformedGatewayId_WhenGetGatewayView_ThrowsEntityNotFoundException() {
+
+        assertThatThrownBy(() -> gatewayReadService.getGateway(UUID.randomUUID().toString()))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> gatewayReadService.getGateway("not-a-uuid"))
+                .isInstanceOf(EntityNotFoundException.class);
+
+    }
+
+    private static List<String> summaries(List<GatewayView> gateways) {
+
+        return gateways.stream()
+                .map(gateway -> gateway.getId() + " " + gateway.getName() + " " + gateway.getPeripherals().stream()
+                        .map(PeripheralView::getId)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> entitySummaries(List<Gateway> gateways) {
+
+        return gateways.stream()
+                .map(gateway -> gateway.getId() + " " + gateway.getName() + " " + (gateway.getPeripherals() == null ? List.of() :
+                        gateway.getPeripherals().stream()
+                                .map(Peripheral::getId)
+                                .sorted()
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatewayResponseCacheTest {
+
+    private final GatewayResponseCache gatewayResponseCache = new GatewayResponseCache(100, Duration.ofMinutes(1));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Given cached gateway, When get, Returns cached response without loading again")
+    void givenCachedGateway_WhenGet_ReturnsCachedResponseWithoutLoadingAgain() {
+
+        GatewayResponseDTO first = gatewayResponseCache.get("g1", this::load);
+        GatewayResponseDTO second = gatewayResponseCache.get("g1", this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(gatewayResponseCache.getStats().hitCount()).isEqualTo(1);
+        assertThat(gatewayResponseCache.getStats().missCount()).isEqualTo(1);
+
+    }
+
+    @Test
+    @DisplayName("Given failing loader, When get, Throws loader exception, Caches nothing")
+    void givenFailingLoader_WhenGet_ThrowsLoaderException_CachesNothing() {
+
+        assertThrows(EntityNotFoundException.class, () -> gatewayResponseCache.get("missing", id -> {
+            throw new EntityNotFoundException("Gateway Not Found by ID: " + id);
+        }));
+
+        gatewayResponseCache.get("missing", this::load);
+
+        assertThat(loads.get()).isEqualTo(1);
+
+    }
+
+    @Test
+    @DisplayName("Given no transaction, When invalidate, Drops cached gateway right away")
+    void givenNoTransaction_WhenInvalidate_DropsCachedGatewayRightAway() {
+
+        gatewayResponseCache.get("g1", this::load);
+
+        gatewayResponseCache.invalidate(List.of("g1"));
+        gatewayResponseCache.get("g1", this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+
+    }
+
+    @Test
+    @DisplayName("Given gateway cached by upper case ID, When invalidate by lower case ID, Loads it again on next read")
+    void givenGatewayCachedByUpperCaseId_WhenInvalidateByLowerCaseId_LoadsItAgainOnNextRead() {
+
+        String gatewayId = "0190a5c2-7b1e-7c3d-9f2a-4b6c8d0e1f23";
+
+        gatewayResponseCache.get(gatewayId.toUpperCase(Locale.ROOT), this::load);
+
+        gatewayResponseCache.invalidate(List.of(gatewayId));
+        gatewayResponseCache.get(gatewayId.toUpperCase(Locale.ROOT), this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+
+    }
+
+    @Test
+    @DisplayName("Given active transaction, When invalidate, Keeps cached gateway until commit, Drops it after commit")
+    void givenActiveTransaction_WhenInvalidate_KeepsCachedGatewayUntilCommit_DropsItAfterCommit() {
+
+        gatewayResponseCache.get("g1", this::load);
+        gatewayResponseCache.get("g2", this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        gatewayResponseCache.invalidate(List.of("g1"));
+
+        gatewayResponseCache.get("g1", this::load);
+        assertThat(loads.get()).isEqualTo(2);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        gatewayResponseCache.get("g1", this::load);
+        gatewayResponseCache.get("g2", this::load);
+        assertThat(loads.get()).isEqualTo(3);
+
+    }
+
+    private GatewayResponseDTO load(String gatewayId) {
+
+        loads.incrementAndGet();
+
+        GatewayResponseDTO gatewayResponseDTO = new GatewayResponseDTO();
+        gatewayResponseDTO.setId(gatewayId);
+
+        return gatewayResponseDTO;
+    }
+
+}
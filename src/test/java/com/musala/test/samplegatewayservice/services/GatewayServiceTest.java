@@ -1,19 +1,25 @@
 package com.musala.test.samplegatewayservice.services;
 
-import com.musala.test.samplegatewayservice.config.modelmapper.ModelMapperConfig;
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
 import com.musala.test.samplegatewayservice.controllers.OperationNotAllowedException;
 import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
 import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.UpdatePeripheralStatusRequestDTO;
+import com.musala.test.samplegatewayservice.mappers.GatewayMapperImpl;
+import com.musala.test.samplegatewayservice.mappers.PeripheralMapperImpl;
 import com.musala.test.samplegatewayservice.models.Gateway;
 import com.musala.test.samplegatewayservice.models.Peripheral;
 import com.musala.test.samplegatewayservice.models.PeripheralStatus;
 import com.musala.test.samplegatewayservice.repo.GatewayRepo;
 import com.musala.test.samplegatewayservice.repo.PeripheralRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.mockito.stubbing.VoidAnswer1;
@@ -24,26 +30,37 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ContextConfiguration;
 
 import javax.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
-@ContextConfiguration(classes = {ModelMapperConfig.class, GatewayService.class})
-@Import({ModelMapperConfig.class})
+@ContextConfiguration(classes = {GatewayMapperImpl.class, PeripheralMapperImpl.class, GatewayService.class, SimpleMeterRegistry.class})
+@Import({GatewayMapperImpl.class, PeripheralMapperImpl.class})
 class GatewayServiceTest {
 
     @MockBean
@@ -52,9 +69,18 @@ class GatewayServiceTest {
     @MockBean
     private PeripheralRepo peripheralRepo;
 
+    @MockBean
+    private GatewayCountProvider gatewayCountProvider;
+
+    @MockBean
+    private GatewayResponseCache gatewayResponseCache;
+
     @Autowired
     private GatewayService gatewayService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
 
     @Nested
     @DisplayName("CreateGateway")
@@ -98,6 +124,10 @@ class GatewayServiceTest {
                     .isEqualTo(ipV4Address);
             assertThat(returnedGateway.getName())
                     .isEqualTo(validName);
+
+            // verify the in-memory count follows the creation
+            verify(gatewayCountProvider, times(1))
+                    .onGatewaysCreated(1);
         }
 
         @Test
@@ -181,6 +211,137 @@ class GatewayServiceTest {
 
         }
 
+        @Test
+        @DisplayName("Given count mode approximate, When Get Gateways, Does not count, Returns Page with provided total")
+        void givenCountModeApproximate_WhenGetGateways_DoesNotCount_ReturnsPageWithProvidedTotal() {
+
+            String id1 = UUID.randomUUID().toString();
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+
+            when(gatewayRepo.findAllBy(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(gateway1), PageRequest.of(0, 1), true));
+
+            when(gatewayCountProvider.getApproximateCount())
+                    .thenReturn(1000L);
+
+            Slice<Gateway> returnedGateways = gatewayService.getGateways(1, 0, CountMode.APPROXIMATE);
+
+            verify(gatewayRepo, times(0))
+                    .findAll(any(Pageable.class));
+            verify(gatewayRepo, times(0))
+                    .count();
+
+            assertThat(returnedGateways).isInstanceOf(Page.class);
+            assertThat(((Page<Gateway>) returnedGateways).getTotalElements()).isEqualTo(1000L);
+            assertThat(returnedGateways.getContent()).containsExactly(gateway1);
+
+        }
+
+        @Test
+        @DisplayName("Given count mode none, When Get Gateways, Does not count, Returns Slice")
+        void givenCountModeNone_WhenGetGateways_DoesNotCount_ReturnsSlice() {
+
+            String id1 = UUID.randomUUID().toString();
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+
+            when(gatewayRepo.findAllBy(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(gateway1), PageRequest.of(0, 1), false));
+
+            Slice<Gateway> returnedGateways = gatewayService.getGateways(1, 0, CountMode.NONE);
+
+            verify(gatewayRepo, times(0))
+                    .findAll(any(Pageable.class));
+            verify(gatewayCountProvider, times(0))
+                    .getApproximateCount();
+
+            assertThat(returnedGateways).isNotInstanceOf(Page.class);
+            assertThat(returnedGateways.hasNext()).isFalse();
+
+        }
+
+    }
+
+
+    @Nested
+    @DisplayName("GetGatewaysAfter")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class GetGatewaysAfterTests {
+
+        @Test
+        @DisplayName("Given empty cursor, When Get Gateways After, Reads first keyset page, Returns Slice with next page")
+        void givenEmptyCursor_WhenGetGatewaysAfter_ReadsFirstKeysetPage_ReturnsSliceWithNextPage() {
+
+            String id1 = UUID.randomUUID().toString();
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+
+            String id2 = UUID.randomUUID().toString();
+            Gateway gateway2 = new Gateway(id2, "Valid Name 2", "192.168.0.2", null);
+
+            String id3 = UUID.randomUUID().toString();
+            Gateway gateway3 = new Gateway(id3, "Valid Name 3", "192.168.0.3", null);
+
+            when(gatewayRepo.findAllByOrderByCreatedAtAscIdAsc(any(Pageable.class)))
+                    .thenReturn(new ArrayList<>(List.of(gateway1, gateway2, gateway3)));
+
+            Slice<Gateway> returnedGateways = gatewayService.getGatewaysAfter(2, "");
+
+            // verify one extra row was requested to detect the next page
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+
+            verify(gatewayRepo, times(1))
+                    .findAllByOrderByCreatedAtAscIdAsc(pageableCaptor.capture());
+
+            assertThat(pageableCaptor.getValue().getOffset()).isZero();
+            assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(3);
+
+            // verify peripherals are only read for the returned gateways
+            ArgumentCaptor<List<String>> gatewayIdCaptor = ArgumentCaptor.forClass((Class) List.class);
+
+            verify(peripheralRepo, times(1))
+                    .findByGatewayIdIn(gatewayIdCaptor.capture());
+
+            assertThat(gatewayIdCaptor.getValue()).hasSameElementsAs(List.of(id1, id2));
+
+            assertThat(returnedGateways.getContent()).containsExactly(gateway1, gateway2);
+            assertThat(returnedGateways.hasNext()).isTrue();
+
+        }
+
+        @Test
+        @DisplayName("Given cursor, When Get Gateways After, Seeks past cursor position, Returns last Slice")
+        void givenCursor_WhenGetGatewaysAfter_SeeksPastCursorPosition_ReturnsLastSlice() {
+
+            LocalDateTime createdAt = LocalDateTime.of(2021, 7, 12, 11, 0);
+            String cursorId = UUID.randomUUID().toString();
+            String cursor = new GatewayCursor(createdAt, cursorId).encode();
+
+            String id1 = UUID.randomUUID().toString();
+            Gateway gateway1 = new Gateway(id1, "Valid Name 1", "192.168.0.1", null);
+
+            when(gatewayRepo.findAllAfter(any(), anyString(), any(Pageable.class)))
+                    .thenReturn(new ArrayList<>(List.of(gateway1)));
+
+            Slice<Gateway> returnedGateways = gatewayService.getGatewaysAfter(2, cursor);
+
+            verify(gatewayRepo, times(1))
+                    .findAllAfter(eq(createdAt), eq(cursorId), any(Pageable.class));
+
+            assertThat(returnedGateways.getContent()).containsExactly(gateway1);
+            assertThat(returnedGateways.hasNext()).isFalse();
+
+        }
+
+        @Test
+        @DisplayName("Given malformed cursor, When Get Gateways After, Throws Exception")
+        void givenMalformedCursor_WhenGetGatewaysAfter_ThrowsException() {
+
+            assertThrows(InvalidRequestParameterException.class, () -> gatewayService.getGatewaysAfter(2, "not-a-cursor"));
+
+            verify(peripheralRepo, times(0))
+                    .findByGatewayIdIn(any());
+
+        }
+
     }
 
 
@@ -286,21 +447,27 @@ class GatewayServiceTest {
             peripheral1.setVendor(peripheralVendorName);
             peripheral1.setGatewayId(gatewayId1);
 
-            when(gatewayRepo.findById(anyString()))
-                    .thenReturn(Optional.of(gateway1));
-
-            when(peripheralRepo.findByGatewayIdIn(any()))
-                    .thenReturn(List.of());
+            when(gatewayRepo.reservePeripheralSlot(anyString(), anyInt(), any()))
+                    .thenReturn(1);
 
             when(peripheralRepo.save(any()))
                     .thenReturn(peripheral1);
 
             Peripheral returnedPeripheral = gatewayService.createGatewayPeripheral(requestDTO);
 
-            ArgumentCaptor<List<String>> gatewayIdCaptor = ArgumentCaptor.forClass((Class) List.class);
+            // verify the cap is enforced by the conditional slot reservation instead of loading the peripherals
+            verify(gatewayRepo, times(1))
+                    .reservePeripheralSlot(eq(gatewayId1), eq(GatewayService.MAX_PERIPHERALS_PER_GATEWAY), any());
 
-            verify(peripheralRepo, times(1))
-                    .findByGatewayIdIn(gatewayIdCaptor.capture());
+            verify(gatewayRepo, times(0))
+                    .existsById(anyString());
+
+            verify(peripheralRepo, times(0))
+                    .findByGatewayIdIn(any());
+
+            // verify the cached response of the gateway is dropped
+            verify(gatewayResponseCache, times(1))
+                    .invalidate(List.of(gatewayId1));
 
             assertThat(returnedPeripheral.getGatewayId()).isEqualTo(gatewayId1);
             assertThat(returnedPeripheral.getName()).isEqualTo(peripheralName1);
@@ -345,24 +512,32 @@ class GatewayServiceTest {
                 existingPeripherals.add(peripheral1);
             }
 
-            when(gatewayRepo.findById(anyString()))
-                    .thenReturn(Optional.of(gateway1));
+            when(gatewayRepo.reservePeripheralSlot(anyString(), anyInt(), any()))
+                    .thenReturn(0);
 
-            when(peripheralRepo.findByGatewayIdIn(any()))
-                    .thenReturn(existingPeripherals);
+            when(gatewayRepo.existsById(anyString()))
+                    .thenReturn(true);
 
             when(peripheralRepo.save(any()))
                     .thenReturn(peripheral1);
 
             String expectedExceptionMessage = "You already have 10 peripherals on this gateway.";
 
-            assertThrows(OperationNotAllowedException.class, () -> gatewayService.createGatewayPeripheral(requestDTO), expectedExceptionMessage);
+            double capRejections = meterRegistry.counter("gateway.peripheral.cap.rejections").count();
 
-            // verify retrieves peripherals from db to get the existing peripheral count
-            ArgumentCaptor<List<String>> gatewayIdCaptor = ArgumentCaptor.forClass((Class) List.class);
+            OperationNotAllowedException exception = assertThrows(OperationNotAllowedException.class, () -> gatewayService.createGatewayPeripheral(requestDTO), expectedExceptionMessage);
 
-            verify(peripheralRepo, times(1))
-                    .findByGatewayIdIn(gatewayIdCaptor.capture());
+            assertThat(exception.getMessage()).isEqualTo(expectedExceptionMessage);
+
+            // verify the rejection is cheap to build, no stack trace is captured
+            assertThat(exception.getStackTrace()).isEmpty();
+
+            // verify the rejection was counted
+            assertThat(meterRegistry.counter("gateway.peripheral.cap.rejections").count()).isEqualTo(capRejections + 1);
+
+            // verify the full gateway was told apart from a missing one
+            verify(gatewayRepo, times(1))
+                    .existsById(gatewayId1);
 
             // verify does not try to save peripheral
             ArgumentCaptor<Peripheral> peripheralCaptor = ArgumentCaptor.forClass(Peripheral.class);
@@ -408,18 +583,18 @@ class GatewayServiceTest {
                 existingPeripherals.add(peripheral1);
             }
 
-            when(gatewayRepo.findById(anyString()))
-                    .thenReturn(Optional.empty());
+            when(gatewayRepo.reservePeripheralSlot(anyString(), anyInt(), any()))
+                    .thenReturn(0);
+
+            when(gatewayRepo.existsById(anyString()))
+                    .thenReturn(false);
 
             String expectedExceptionMessage = "Gateway Not Found by ID: " + gatewayId1;
 
             assertThrows(EntityNotFoundException.class, () -> gatewayService.createGatewayPeripheral(requestDTO), expectedExceptionMessage);
 
-            // verify retrieves peripherals from db to get the existing peripheral count
-            ArgumentCaptor<List<String>> gatewayIdCaptor = ArgumentCaptor.forClass((Class) List.class);
-
             verify(peripheralRepo, times(0))
-                    .findByGatewayIdIn(gatewayIdCaptor.capture());
+                    .findByGatewayIdIn(any());
 
             // verify does not try to save peripheral
             ArgumentCaptor<Peripheral> peripheralCaptor = ArgumentCaptor.forClass(Peripheral.class);
@@ -479,6 +654,14 @@ class GatewayServiceTest {
             assertThat(peripheralCaptor.getValue().getId()).isEqualTo(peripheralId1);
             assertThat(returnedPeripheral.getId()).isEqualTo(peripheralId1);
 
+            // verify the gateway's peripheral slot was given back
+            verify(gatewayRepo, times(1))
+                    .releasePeripheralSlot(eq(gatewayId1), any());
+
+            // verify the cached response of the gateway is dropped
+            verify(gatewayResponseCache, times(1))
+                    .invalidate(List.of(gatewayId1));
+
         }
 
         @Test
@@ -518,7 +701,148 @@ class GatewayServiceTest {
             verify(peripheralRepo, times(0))
                     .delete(peripheralCaptor.capture());
 
+            verify(gatewayRepo, times(0))
+                    .releasePeripheralSlot(anyString(), any());
+
+        }
+
+    }
+
+    @Nested
+    @DisplayName("UpdatePeripheralStatus")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class UpdatePeripheralStatusTests {
+
+        @Test
+        @DisplayName("Given more peripheral ids than one statement takes, When update peripheral status, Updates in bounded statements, Returns total updated")
+        void givenMorePeripheralIdsThanOneStatementTakes_WhenUpdatePeripheralStatus_UpdatesInBoundedStatements_ReturnsTotalUpdated() {
+
+            int idCount = GatewayService.MAX_PERIPHERAL_IDS_PER_UPDATE + 1;
+
+            List<Long> peripheralIds = LongStream.rangeClosed(1, idCount)
+                    .boxed()
+                    .collect(Collectors.toList());
+
+            // duplicates are updated once
+            peripheralIds.add(1L);
+
+            when(peripheralRepo.updateStatusByIdIn(anyCollection(), eq(PeripheralStatus.OFFLINE), any()))
+                    .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+            int updated = gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(peripheralIds, null, PeripheralStatus.OFFLINE));
+
+            assertThat(updated).isEqualTo(idCount);
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Long>> idsCaptor = ArgumentCaptor.forClass(List.class);
+
+            verify(peripheralRepo, times(2))
+                    .updateStatusByIdIn(idsCaptor.capture(), eq(PeripheralStatus.OFFLINE), any());
+
+            assertThat(idsCaptor.getAllValues().get(0)).hasSize(GatewayService.MAX_PERIPHERAL_IDS_PER_UPDATE);
+            assertThat(idsCaptor.getAllValues().get(1)).containsExactly((long) idCount);
+
+        }
+
+        @Test
+        @DisplayName("Given existing gateway id, When update peripheral status, Updates all gateway peripherals in one statement, Returns updated")
+        void givenExistingGatewayId_WhenUpdatePeripheralStatus_UpdatesAllGatewayPeripheralsInOneStatement_ReturnsUpdated() {
+
+            String gatewayId = UUID.randomUUID().toString();
+
+            when(gatewayRepo.existsById(gatewayId))
+                    .thenReturn(true);
+            when(peripheralRepo.updateStatusByGatewayId(eq(gatewayId), eq(PeripheralStatus.ONLINE), any()))
+                    .thenReturn(7);
+
+            int updated = gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(null, gatewayId, PeripheralStatus.ONLINE));
+
+            assertThat(updated).isEqualTo(7);
+
+            verify(peripheralRepo, times(0))
+                    .updateStatusByIdIn(anyCollection(), any(), any());
+
+        }
+
+        @Test
+        @DisplayName("Given peripherals changing status, When update peripheral status, Marks their gateways modified before updating, Drops cached responses")
+        void givenPeripheralsChangingStatus_WhenUpdatePeripheralStatus_MarksGatewaysModifiedBeforeUpdating_DropsCachedResponses() {
+
+            String gatewayId = UUID.randomUUID().toString();
+
+            when(peripheralRepo.findGatewayIdsToUpdateByIdIn(anyCollection(), eq(PeripheralStatus.OFFLINE)))
+                    .thenReturn(List.of(gatewayId));
+            when(peripheralRepo.updateStatusByIdIn(anyCollection(), eq(PeripheralStatus.OFFLINE), any()))
+                    .thenReturn(2);
+
+            gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(List.of(1L, 2L), null, PeripheralStatus.OFFLINE));
+
+            InOrder inOrder = inOrder(gatewayRepo, peripheralRepo);
+
+            inOrder.verify(gatewayRepo, times(1))
+                    .touch(eq(List.of(gatewayId)), any());
+            inOrder.verify(peripheralRepo, times(1))
+                    .updateStatusByIdIn(anyCollection(), eq(PeripheralStatus.OFFLINE), any());
+
+            verify(gatewayResponseCache, times(1))
+                    .invalidate(List.of(gatewayId));
+
+        }
+
+        @Test
+        @DisplayName("Given gateway peripherals already in status, When update peripheral status, Leaves gateway unmodified")
+        void givenGatewayPeripheralsAlreadyInStatus_WhenUpdatePeripheralStatus_LeavesGatewayUnmodified() {
+
+            String gatewayId = UUID.randomUUID().toString();
+
+            when(gatewayRepo.existsById(gatewayId))
+                    .thenReturn(true);
+            when(peripheralRepo.existsToUpdateByGatewayId(gatewayId, PeripheralStatus.ONLINE))
+                    .thenReturn(false);
+
+            int updated = gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(null, gatewayId, PeripheralStatus.ONLINE));
+
+            assertThat(updated).isZero();
+
+            verify(gatewayRepo, times(0))
+                    .touch(anyCollection(), any());
+            verify(gatewayResponseCache, times(0))
+                    .invalidate(anyCollection());
+
+        }
+
+        @Test
+        @DisplayName("Given non existing gateway id, When update peripheral status, Throws Exception, Updates nothing")
+        void givenNonExistingGatewayId_WhenUpdatePeripheralStatus_ThrowsException_UpdatesNothing() {
+
+            String gatewayId = UUID.randomUUID().toString();
+
+            when(gatewayRepo.existsById(gatewayId))
+                    .thenReturn(false);
+
+            assertThrows(EntityNotFoundException.class, () -> gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(null, gatewayId, PeripheralStatus.ONLINE)));
+
+            verify(peripheralRepo, times(0))
+                    .updateStatusByGatewayId(anyString(), any(), any());
+
+        }
+
+        @Test
+        @DisplayName("Given both or neither of peripheral ids and gateway id, When update peripheral status, Throws Exception")
+        void givenBothOrNeitherTargets_WhenUpdatePeripheralStatus_ThrowsException() {
+
+            assertThrows(InvalidRequestParameterException.class, () -> gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(List.of(1L), UUID.randomUUID().toString(), PeripheralStatus.ONLINE)));
+
+            assertThrows(InvalidRequestParameterException.class, () -> gatewayService.updatePeripheralStatus(
+                    new UpdatePeripheralStatusRequestDTO(List.of(), null, PeripheralStatus.ONLINE)));
+
         }
 
     }
-}
\ No newline at end of file
+}
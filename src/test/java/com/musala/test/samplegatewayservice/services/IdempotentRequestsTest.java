@@ -0,0 +1,180 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
+import com.musala.test.samplegatewayservice.controllers.OperationNotAllowedException;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.gateway.GatewayResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotentRequestsTest {
+
+    private static final String OPERATION = "POST /gateway";
+
+    private final IdempotentRequests idempotentRequests = new IdempotentRequests("X-Client-Id", 100, Duration.ofMinutes(1));
+
+    private final CreateGatewayDTO request = new CreateGatewayDTO("G1", "10.0.0.1");
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    @DisplayName("Given completed request, When execute with same key, Returns original response without executing again")
+    void givenCompletedRequest_WhenExecuteWithSameKey_ReturnsOriginalResponseWithoutExecutingAgain() {
+
+        GatewayResponseDTO first = idempotentRequests.execute(OPERATION, "k1", request, this::create);
+        GatewayResponseDTO second = idempotentRequests.execute(OPERATION, "k1", new CreateGatewayDTO("G1", "10.0.0.1"), this::create);
+
+        assertThat(second).isSameAs(first);
+        assertThat(executions.get()).isEqualTo(1);
+
+    }
+
+    @Test
+    @DisplayName("Given no key or other key or other operation, When execute, Executes every time")
+    void givenNoKeyOrOtherKeyOrOtherOperation_WhenExecute_ExecutesEveryTime() {
+
+        idempotentRequests.execute(OPERATION, "k1", request, this::create);
+        idempotentRequests.execute(OPERATION, "k2", request, this::create);
+        idempotentRequests.execute("POST /gateway/peripheral", "k1", request, this::create);
+        idempotentRequests.execute(OPERATION, null, request, this::create);
+        idempotentRequests.execute(OPERATION, null, request, this::create);
+
+        assertThat(executions.get()).isEqualTo(5);
+
+    }
+
+    @Test
+    @DisplayName("Given key used for other request, When execute, Throws invalid request parameter, Does not execute")
+    void givenKeyUsedForOtherRequest_WhenExecute_ThrowsInvalidRequestParameter_DoesNotExecute() {
+
+        idempotentRequests.execute(OPERATION, "k1", request, this::create);
+
+        assertThrows(InvalidRequestParameterException.class, () ->
+                idempotentRequests.execute(OPERATION, "k1", new CreateGatewayDTO("G2", "10.0.0.1"), this::create));
+
+        assertThat(executions.get()).isEqualTo(1);
+
+    }
+
+    @Test
+    @DisplayName("Given same key from other client, When execute, Executes again, Tells clients apart by header or remote address")
+    void givenSameKeyFromOtherClient_WhenExecute_ExecutesAgain_TellsClientsApartByHeaderOrRemoteAddress() {
+
+        executeAs(clientRequest("10.0.0.1", "client-a"));
+        executeAs(clientRequest("10.0.0.2", "client-a"));
+
+        assertThat(executions.get()).isEqualTo(1);
+
+        executeAs(clientRequest("10.0.0.1", "client-b"));
+        executeAs(clientRequest("10.0.0.3", null));
+        executeAs(clientRequest("10.0.0.3", null));
+
+        assertThat(executions.get()).isEqualTo(3);
+
+    }
+
+    @Test
+    @DisplayName("Given too long key, When execute, Throws invalid request parameter")
+    void givenTooLongKey_WhenExecute_ThrowsInvalidRequestParameter() {
+
+        String key = "k".repeat(IdempotentRequests.MAX_KEY_LENGTH + 1);
+
+        assertThrows(InvalidRequestParameterException.class, () -> idempotentRequests.execute(OPERATION, key, request, this::create));
+
+        assertThat(executions.get()).isZero();
+
+    }
+
+    @Test
+    @DisplayName("Given failed request, When execute with same key, Executes again")
+    void givenFailedRequest_WhenExecuteWithSameKey_ExecutesAgain() {
+
+        assertThrows(OperationNotAllowedException.class, () -> idempotentRequests.execute(OPERATION, "k1", request, () -> {
+            throw new OperationNotAllowedException(GatewayService.PERIPHERAL_CAP_MESSAGE);
+        }));
+
+        idempotentRequests.execute(OPERATION, "k1", request, this::create);
+
+        assertThat(executions.get()).isEqualTo(1);
+
+    }
+
+    @Test
+    @DisplayName("Given request in flight, When execute with same key concurrently, Waits for it, Returns its response")
+    void givenRequestInFlight_WhenExecuteWithSameKeyConcurrently_WaitsForIt_ReturnsItsResponse() throws Exception {
+
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<GatewayResponseDTO> first = CompletableFuture.supplyAsync(() ->
+                idempotentRequests.execute(OPERATION, "k1", request, () -> {
+                    executing.countDown();
+                    await(release);
+                    return create();
+                }));
+
+        assertThat(executing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<GatewayResponseDTO> second = CompletableFuture.supplyAsync(() ->
+                idempotentRequests.execute(OPERATION, "k1", request, this::create));
+
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(executions.get()).isEqualTo(1);
+
+    }
+
+    private void executeAs(MockHttpServletRequest clientRequest) {
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        try {
+            idempotentRequests.execute(OPERATION, "k1", request, this::create);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static MockHttpServletRequest clientRequest(String remoteAddress, String clientId) {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest("POST", "/gateway");
+        clientRequest.setRemoteAddr(remoteAddress);
+
+        if (clientId != null) {
+            clientRequest.addHeader("X-Client-Id", clientId);
+        }
+
+        return clientRequest;
+    }
+
+    private GatewayResponseDTO create() {
+
+        GatewayResponseDTO gatewayResponseDTO = new GatewayResponseDTO();
+        gatewayResponseDTO.setId("g" + executions.incrementAndGet());
+
+        return gatewayResponseDTO;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
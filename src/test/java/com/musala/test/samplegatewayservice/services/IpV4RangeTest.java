@@ -0,0 +1,44 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.controllers.InvalidRequestParameterException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IpV4RangeTest {
+
+    @Test
+    @DisplayName("Given CIDR, When parsed, Returns first and last address of the subnet as unsigned numbers")
+    void givenCidr_WhenParsed_ReturnsFirstAndLastAddressOfSubnet() {
+
+        assertThat(IpV4Range.ofCidr("10.20.0.0/16")).isEqualTo(new IpV4Range(0x0a140000L, 0x0a14ffffL));
+        assertThat(IpV4Range.ofCidr("10.20.1.7/16")).isEqualTo(new IpV4Range(0x0a140000L, 0x0a14ffffL));
+        assertThat(IpV4Range.ofCidr("192.168.0.1/32")).isEqualTo(new IpV4Range(0xc0a80001L, 0xc0a80001L));
+        assertThat(IpV4Range.ofCidr("200.1.2.3/0")).isEqualTo(new IpV4Range(0L, 0xffffffffL));
+
+    }
+
+    @Test
+    @DisplayName("Given address, When parsed, Returns single address range")
+    void givenAddress_WhenParsed_ReturnsSingleAddressRange() {
+
+        assertThat(IpV4Range.ofAddress("255.255.255.255")).isEqualTo(new IpV4Range(0xffffffffL, 0xffffffffL));
+
+    }
+
+    @Test
+    @DisplayName("Given malformed values, When parsed, Throws invalid request parameter")
+    void givenMalformedValues_WhenParsed_ThrowsInvalidRequestParameter() {
+
+        assertThrows(InvalidRequestParameterException.class, () -> IpV4Range.ofCidr("10.20.0.0"));
+        assertThrows(InvalidRequestParameterException.class, () -> IpV4Range.ofCidr("10.20.0.0/33"));
+        assertThrows(InvalidRequestParameterException.class, () -> IpV4Range.ofCidr("10.20.0.0/-1"));
+        assertThrows(InvalidRequestParameterException.class, () -> IpV4Range.ofCidr("10.20.0/16"));
+        assertThrows(InvalidRequestParameterException.class, () -> IpV4Range.ofCidr("10.20.0.0/x"));
+        assertThrows(InvalidRequestParameterException.class, () -> IpV4Range.ofAddress("10.20.0.256"));
+
+    }
+
+}
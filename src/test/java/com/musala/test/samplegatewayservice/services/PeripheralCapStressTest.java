@@ -0,0 +1,171 @@
+package com.musala.test.samplegatewayservice.services;
+
+import com.musala.test.samplegatewayservice.controllers.OperationNotAllowedException;
+import com.musala.test.samplegatewayservice.dtos.gateway.CreateGatewayDTO;
+import com.musala.test.samplegatewayservice.dtos.peripheral.CreatePeripheralRequestDTO;
+import com.musala.test.samplegatewayservice.models.Gateway;
+import com.musala.test.samplegatewayservice.models.Peripheral;
+import com.musala.test.samplegatewayservice.repo.PeripheralRepo;
+import com.musala.test.samplegatewayservice.support.LocalDatabase;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single gateway from many threads against a real database to prove the peripheral cap holds under concurrency
+ * */
+@Log4j2
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=" + 2 * PeripheralCapStressTest.THREADS)
+class PeripheralCapStressTest {
+
+    /**
+     * The sequence ID generator takes a second connection while the creating transaction holds its own,
+     * so the pool must have room for two connections per thread
+     * */
+    static final int THREADS = 16;
+
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        LocalDatabase.registerProperties(registry);
+    }
+
+    @Autowired
+    private GatewayService gatewayService;
+
+    @Autowired
+    private PeripheralRepo peripheralRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Given concurrent peripheral creations on one gateway, When create gateway peripheral, Creates exactly the allowed peripherals, Rejects the rest")
+    void givenConcurrentCreationsOnOneGateway_WhenCreateGatewayPeripheral_CreatesExactlyAllowedPeripherals_RejectsTheRest() throws Exception {
+
+        Gateway gateway = gatewayService.createGateway(new CreateGatewayDTO("Stress Gateway", "10.0.0.1"));
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long elapsedNanos = runConcurrently(() -> {
+
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    gatewayService.createGatewayPeripheral(peripheralRequest(gateway.getId()));
+                    created.incrementAndGet();
+                } catch (OperationNotAllowedException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+
+            return null;
+        });
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+
+        log.info("Peripheral cap stress: {} attempts on one gateway in {} ms, {} requests/s",
+                attempts, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), attempts * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+
+        assertThat(created.get()).isEqualTo(GatewayService.MAX_PERIPHERALS_PER_GATEWAY);
+        assertThat(rejected.get()).isEqualTo(attempts - GatewayService.MAX_PERIPHERALS_PER_GATEWAY);
+
+        assertThat(peripheralRepo.findByGatewayIdIn(List.of(gateway.getId())))
+                .hasSize(GatewayService.MAX_PERIPHERALS_PER_GATEWAY);
+        assertThat(peripheralCount(gateway.getId()))
+                .isEqualTo(GatewayService.MAX_PERIPHERALS_PER_GATEWAY);
+
+    }
+
+    @Test
+    @DisplayName("Given concurrent creations and deletions on one gateway, When churning peripherals, Keeps the counter equal to the stored peripherals")
+    void givenConcurrentCreationsAndDeletionsOnOneGateway_WhenChurningPeripherals_KeepsCounterEqualToStoredPeripherals() throws Exception {
+
+        Gateway gateway = gatewayService.createGateway(new CreateGatewayDTO("Churn Gateway", "10.0.0.2"));
+
+        runConcurrently(() -> {
+
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    Peripheral peripheral = gatewayService.createGatewayPeripheral(peripheralRequest(gateway.getId()));
+
+                    if (i % 2 == 0) {
+                        gatewayService.deletePeripheral(peripheral.getId());
+                    }
+                } catch (OperationNotAllowedException e) {
+                    // full at the moment, other threads will free slots
+                }
+            }
+
+            return null;
+        });
+
+        List<Peripheral> storedPeripherals = peripheralRepo.findByGatewayIdIn(List.of(gateway.getId()));
+
+        assertThat(storedPeripherals).hasSizeLessThanOrEqualTo(GatewayService.MAX_PERIPHERALS_PER_GATEWAY);
+        assertThat(peripheralCount(gateway.getId())).isEqualTo(storedPeripherals.size());
+
+    }
+
+    private long runConcurrently(Callable<Void> task) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+
+            return System.nanoTime() - startNanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int peripheralCount(String gatewayId) {
+        return jdbcTemplate.queryForObject("SELECT peripheral_count FROM gateways WHERE id = UNHEX(REPLACE(?, '-', ''))", Integer.class, gatewayId);
+    }
+
+    private static CreatePeripheralRequestDTO peripheralRequest(String gatewayId) {
+
+        CreatePeripheralRequestDTO requestDTO = new CreatePeripheralRequestDTO();
+        requestDTO.setGatewayId(gatewayId);
+        requestDTO.setName("P");
+        requestDTO.setVendor("Vendor");
+        requestDTO.setStatus("ONLINE");
+
+        return requestDTO;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.musala.test.samplegatewayservice.support;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.flywaydb.core.Flyway;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * Embedded MariaDB shared by the database backed tests of a test run, started on a free port on first use.
+ * Flyway creates the schema when the application context starts against it.
+ * */
+public final class LocalDatabase {
+
+    public static final String DATABASE_NAME = "gateway_service";
+
+    /**
+     * Second schema on the same server standing in for a read replica, nothing replicates into it
+     * */
+    public static final String REPLICA_DATABASE_NAME = "gateway_service_replica";
+
+    private static boolean replicaMigrated;
+
+    private static DB db;
+
+    private LocalDatabase() {
+    }
+
+    public static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(DATABASE_NAME));
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     * Adds the replica schema as the only read replica, migrated like the primary but otherwise independent of it
+     * */
+    public static void registerReplicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("gateway.datasource.replica.urls", LocalDatabase::replicaJdbcUrl);
+    }
+
+    public static synchronized String replicaJdbcUrl() {
+
+        String url = jdbcUrl(REPLICA_DATABASE_NAME);
+
+        if (!replicaMigrated) {
+
+            try {
+                db.createDB(REPLICA_DATABASE_NAME);
+            } catch (ManagedProcessException e) {
+                throw new IllegalStateException("Could not create the local replica database", e);
+            }
+
+            Flyway.configure().dataSource(url, "root", "").load().migrate();
+            replicaMigrated = true;
+        }
+
+        return url;
+    }
+
+    public static synchronized String jdbcUrl(String databaseName) {
+        return "jdbc:mysql://localhost:" + start().getConfiguration().getPort() + "/" + databaseName
+                + "?serverTimezone=UTC&useSSL=false";
+    }
+
+    private static DB start() {
+
+        if (db != null) {
+            return db;
+        }
+
+        DBConfigurationBuilder configuration = DBConfigurationBuilder.newBuilder();
+        configuration.setPort(0);
+
+        try {
+            db = DB.newEmbeddedDB(configuration.build());
+            db.start();
+            db.createDB(DATABASE_NAME);
+        } catch (ManagedProcessException e) {
+            throw new IllegalStateException("Could not start the local database", e);
+        }
+
+        return db;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.musala.test.samplegatewayservice.support;
+
+import lombok.Value;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every statement executed through a data source wrapped by {@link #wrap(DataSource)}, with the parameters of its first execution
+ * */
+public class StatementRecorder implements QueryExecutionListener {
+
+    private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+    public DataSource wrap(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("recorded")
+                .listener(this)
+                .build();
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    public List<RecordedStatement> getStatements() {
+        return new ArrayList<>(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        for (QueryInfo queryInfo : queryInfoList) {
+
+            List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                    ? new ArrayList<>()
+                    : new ArrayList<>(queryInfo.getParametersList().get(0));
+
+            parameters.sort(Comparator.comparingInt(parameter -> (Integer) parameter.getArgs()[0]));
+
+            statements.add(new RecordedStatement(queryInfo.getQuery(), parameters));
+        }
+
+    }
+
+    @Value
+    public static class RecordedStatement {
+
+        String sql;
+
+        List<ParameterSetOperation> parameters;
+
+    }
+
+}